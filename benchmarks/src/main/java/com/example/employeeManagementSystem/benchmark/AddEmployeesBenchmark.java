@@ -0,0 +1,57 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//addEmployees with several request sizes on top of a table of rowCount rows, the table is reset every iteration
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AddEmployeesBenchmark {
+
+    @Param({"1000"})
+    int rowCount;
+
+    @Param({"10", "100", "1000"})
+    int batchSize;
+
+    ConfigurableApplicationContext context;
+    EmployeeService employeeService;
+    EmployeeRepository employeeRepository;
+    List<EmployeeRequestDto> requests;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkApplication.start();
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        requests = BenchmarkApplication.requests(new Random(7), 0, batchSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTable(){
+        employeeRepository.deleteAllInBatch();
+        BenchmarkApplication.seed(context, rowCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> addEmployees(){
+        return employeeService.addEmployees(requests);
+    }
+}
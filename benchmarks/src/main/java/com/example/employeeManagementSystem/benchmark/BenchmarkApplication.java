@@ -0,0 +1,102 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.EmployeeManagementSystemApplication;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+//Boots the application (without a web server unless asked for one) against its own embedded H2 and seeds it
+final class BenchmarkApplication {
+
+    static final String[] DEPARTMENTS = {"Cricket", "Football", "Hockey", "Tennis", "Chess", "Kabaddi", "Badminton", "Golf", "Boxing", "Cycling"};
+    static final String[] NAMES = {"Sachin", "Virat", "Dhoni", "Rohit", "Sunil", "Anil", "Kapil", "Rahul", "Sourav", "Yuvraj"};
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkApplication(){
+    }
+
+    static ConfigurableApplicationContext start(){
+        return start(WebApplicationType.NONE);
+    }
+
+    //SERVLET boots the embedded Tomcat on a random port, see port(context)
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... profiles){
+        return new SpringApplicationBuilder(EmployeeManagementSystemApplication.class)
+                .web(webApplicationType)
+                .profiles(profiles)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.open-in-view=false",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    //durable profile - file database in dir, kept between runs. The dir is an argument, application-durable.properties
+    //would win over a default property
+    static ConfigurableApplicationContext startDurable(Path dir){
+        return new SpringApplicationBuilder(EmployeeManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("durable")
+                .properties(
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run("--employee.storage.dir=" + dir.toAbsolutePath());
+    }
+
+    static int port(ConfigurableApplicationContext context){
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    //Inserts rowCount employees through the service (batched addEmployees), same seed every run
+    //Returns the generated ids
+    static long[] seed(ConfigurableApplicationContext context, int rowCount){
+        EmployeeService employeeService = context.getBean(EmployeeService.class);
+        Random random = new Random(42);
+        long[] ids = new long[rowCount];
+
+        for(int seeded = 0; seeded < rowCount; seeded += SEED_CHUNK){
+            int chunk = Math.min(SEED_CHUNK, rowCount - seeded);
+            List<EmployeeResponseDto> added = employeeService.addEmployees(requests(random, seeded, chunk));
+            for(int i = 0; i < added.size(); i++){
+                ids[seeded + i] = added.get(i).getId();
+            }
+        }
+        return ids;
+    }
+
+    static List<EmployeeRequestDto> requests(Random random, int offset, int count){
+        List<EmployeeRequestDto> requests = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            int n = offset + i;
+            requests.add(new EmployeeRequestDto(
+                    NAMES[random.nextInt(NAMES.length)] + " " + n,
+                    100_000 + random.nextInt(900_000),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    "employee" + n + "@example.com"));
+        }
+        return requests;
+    }
+
+    static Employee employee(long id){
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setName("Sachin Tendulkar");
+        employee.setSalary(900000);
+        employee.setDepartment("Cricket");
+        employee.setEmail("sachin@example.com");
+        return employee;
+    }
+}
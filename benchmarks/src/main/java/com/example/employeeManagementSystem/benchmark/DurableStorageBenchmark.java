@@ -0,0 +1,120 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.storage.EmployeeSnapshots;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+//durable profile with rowCount employees in a file database :
+//  startup        - context start until ready (schema update check, pool, caches), one cold start per fork - a second
+//                   start in the same JVM is several times faster and says nothing about a real restart
+//  writeSnapshot  - EmployeeSnapshots.write to a file
+//  restore        - EmployeeSnapshots.restore of that file (truncate, batch inserts, department_stats)
+//  replayInserts  - the same rows through addEmployees into an empty file database, what restore replaces
+//The database and the snapshot are created once under target/ and reused by later runs (the run creating them boots the
+//application in the first startup fork already, that fork is not a cold start)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableStorageBenchmark {
+
+    @Param({"1000000"})
+    int rowCount;
+
+    Path dir;
+    Path snapshot;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        dir = Path.of("target", "durable-" + rowCount);
+        snapshot = Path.of("target", "durable-" + rowCount + ".snap");
+        if(Files.exists(snapshot)){
+            return;
+        }
+        FileSystemUtils.deleteRecursively(dir);
+        try(ConfigurableApplicationContext context = BenchmarkApplication.startDurable(dir)){
+            BenchmarkApplication.seed(context, rowCount);
+            try(OutputStream outputStream = Files.newOutputStream(snapshot)){
+                context.getBean(EmployeeSnapshots.class).write(outputStream);
+            }
+        }
+    }
+
+    //Context of the startup benchmark, closed after the iteration
+    @State(Scope.Benchmark)
+    public static class Started {
+        ConfigurableApplicationContext context;
+
+        @TearDown(Level.Iteration)
+        public void close(){
+            if(context != null){
+                context.close();
+                context = null;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Running {
+        ConfigurableApplicationContext context;
+        EmployeeSnapshots employeeSnapshots;
+
+        @Setup(Level.Trial)
+        public void start(DurableStorageBenchmark benchmark){
+            context = BenchmarkApplication.startDurable(benchmark.dir);
+            employeeSnapshots = context.getBean(EmployeeSnapshots.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void close(){
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Fork(3)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public ConfigurableApplicationContext startup(Started started){
+        started.context = BenchmarkApplication.startDurable(dir);
+        return started.context;
+    }
+
+    @Benchmark
+    public long writeSnapshot(Running running) throws IOException {
+        Path file = Files.createTempFile(Path.of("target"), "durable-", ".snap");
+        try(OutputStream outputStream = Files.newOutputStream(file)){
+            return running.employeeSnapshots.write(outputStream);
+        }finally {
+            Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public long restore(Running running) throws IOException {
+        try(InputStream inputStream = Files.newInputStream(snapshot)){
+            return running.employeeSnapshots.restore(inputStream);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public long[] replayInserts() throws IOException {
+        Path replayDir = Path.of("target", "durable-replay");
+        FileSystemUtils.deleteRecursively(replayDir);
+        try(ConfigurableApplicationContext context = BenchmarkApplication.startDurable(replayDir)){
+            return BenchmarkApplication.seed(context, rowCount);
+        }
+    }
+}
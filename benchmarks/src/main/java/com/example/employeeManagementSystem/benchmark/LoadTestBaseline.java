@@ -0,0 +1,72 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+//Result file of a load test run - the committed one (loadtest-baseline.json) is what later runs are compared against
+final class LoadTestBaseline {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Run(String settings, Map<String, OperationResult> operations) {
+    }
+
+    record OperationResult(long count, long errors, double throughput, double p50Millis, double p99Millis,
+                           double p999Millis, double maxMillis) {
+    }
+
+    private LoadTestBaseline(){
+    }
+
+    static Run read(Path file) throws IOException {
+        return OBJECT_MAPPER.readValue(file.toFile(), Run.class);
+    }
+
+    static void write(Path file, Run run) throws IOException {
+        OBJECT_MAPPER.writeValue(file.toFile(), run);
+    }
+
+    //An operation regresses when its p99 or p999 grew by more than threshold (0.25 = 25%) and by at least slackMillis,
+    //or when it returned errors. Operations missing from either side are skipped
+    static List<String> compare(Run baseline, Run current, double threshold, double slackMillis){
+        List<String> regressions = new ArrayList<>();
+        if(!baseline.settings().equals(current.settings())){
+            System.out.println("WARNING baseline was recorded with " + baseline.settings());
+        }
+
+        current.operations().forEach((operation, result) -> {
+            if(result.errors() > 0){
+                regressions.add(operation + " returned " + result.errors() + " errors");
+            }
+            OperationResult expected = baseline.operations().get(operation);
+            if(expected == null){
+                return;
+            }
+            checkTail(regressions, operation, "p99", expected.p99Millis(), result.p99Millis(), threshold, slackMillis);
+            checkTail(regressions, operation, "p999", expected.p999Millis(), result.p999Millis(), threshold, slackMillis);
+        });
+        return regressions;
+    }
+
+    private static void checkTail(List<String> regressions, String operation, String percentile, double expected,
+                                  double actual, double threshold, double slackMillis){
+        if(actual > expected * (1 + threshold) && actual - expected >= slackMillis){
+            regressions.add(String.format("%s %s %.3f ms, baseline %.3f ms (+%.0f%%)",
+                    operation, percentile, actual, expected, (actual / expected - 1) * 100));
+        }
+    }
+
+    static void print(Run run, PrintStream out){
+        out.printf("%-8s %10s %8s %12s %10s %10s %10s %10s%n", "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        run.operations().forEach((operation, result) -> out.printf("%-8s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f%n",
+                operation, result.count(), result.errors(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis()));
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+//HTTP load test of EmployeeController : boots the application on a random port against its own embedded H2,
+//drives a weighted mix of add/get/search/page requests from concurrent workers, records latencies in HDR histograms
+//and compares p99/p999 against the committed baseline (loadtest-baseline.json). Exits with 1 on a tail regression.
+//
+//Arguments are key=value, e.g. "mix=get:70,page:30 threads=32 duration=60", see LoadTestSettings for the defaults.
+//profiles=virtual runs the application in the virtual thread mode (application-virtual.properties).
+//With rate=N the workers send N requests/s in total on a fixed schedule and latency is measured from the intended
+//send time, so a stalled server is not hidden by the workers waiting on it (coordinated omission).
+public final class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadTestRunner(){
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        System.out.println("Load test " + settings);
+
+        ConfigurableApplicationContext context = BenchmarkApplication.start(WebApplicationType.SERVLET, settings.profiles());
+        LoadTestBaseline.Run run;
+        try {
+            long[] ids = BenchmarkApplication.seed(context, settings.rows());
+            String baseUrl = "http://localhost:" + BenchmarkApplication.port(context) + "/api/employees";
+            run = run(settings, baseUrl, ids);
+        } finally {
+            context.close();
+        }
+
+        Path resultFile = Path.of(settings.result());
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        LoadTestBaseline.write(resultFile, run);
+        System.out.println("Load test result is saved to " + resultFile);
+
+        Path baselineFile = Path.of(settings.baseline());
+        if(settings.record()){
+            LoadTestBaseline.write(baselineFile, run);
+            System.out.println("Baseline recorded to " + baselineFile);
+            return;
+        }
+        if(!Files.exists(baselineFile)){
+            System.out.println("No baseline at " + baselineFile + ", run with record=true to create one");
+            return;
+        }
+
+        List<String> regressions = LoadTestBaseline.compare(LoadTestBaseline.read(baselineFile), run,
+                settings.threshold(), settings.slackMillis());
+        if(!regressions.isEmpty()){
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            System.exit(1);
+        }
+        System.out.println("Tail latency within " + Math.round(settings.threshold() * 100) + "% of the baseline");
+    }
+
+    static LoadTestBaseline.Run run(LoadTestSettings settings, String baseUrl, long[] ids) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+        //0 = closed loop, every worker sends its next request as soon as the previous one returned
+        long intervalNanos = settings.rate() > 0 ? TimeUnit.SECONDS.toNanos(settings.threads()) / settings.rate() : 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        List<Future<Worker>> futures = new ArrayList<>();
+        for(int i = 0; i < settings.threads(); i++){
+            Worker worker = new Worker(client, baseUrl, ids, settings.mix(), new SplittableRandom(i),
+                    start + i * (intervalNanos / settings.threads()), intervalNanos, measureFrom, measureUntil);
+            futures.add(workers.submit(worker, worker));
+        }
+
+        Map<Operation, Histogram> histograms = new LinkedHashMap<>();
+        Map<Operation, Long> errors = new LinkedHashMap<>();
+        for(Future<Worker> future : futures){
+            Worker worker = future.get();
+            worker.histograms.forEach((operation, histogram) ->
+                    histograms.computeIfAbsent(operation, op -> newHistogram()).add(histogram));
+            worker.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+        workers.shutdown();
+
+        Map<String, LoadTestBaseline.OperationResult> operations = new LinkedHashMap<>();
+        for(Map.Entry<Operation, Histogram> entry : histograms.entrySet()){
+            Histogram histogram = entry.getValue();
+            String name = entry.getKey().key;
+            operations.put(name, new LoadTestBaseline.OperationResult(
+                    histogram.getTotalCount(),
+                    errors.getOrDefault(entry.getKey(), 0L),
+                    Math.round(histogram.getTotalCount() * 10.0 / settings.durationSeconds()) / 10.0,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+            printDistribution(settings, name, histogram);
+        }
+
+        LoadTestBaseline.Run run = new LoadTestBaseline.Run(settings.toString(), operations);
+        LoadTestBaseline.print(run, System.out);
+        return run;
+    }
+
+    //Full HdrHistogram percentile distribution in ms next to the result file (plot with the HdrHistogram plotter)
+    private static void printDistribution(LoadTestSettings settings, String operation, Histogram histogram) throws IOException {
+        Path file = Path.of(settings.result()).toAbsolutePath().resolveSibling("loadtest-" + operation + ".hgrm");
+        Files.createDirectories(file.getParent());
+        try(PrintStream out = new PrintStream(Files.newOutputStream(file))){
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static double millis(long nanos){
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+
+    private static Histogram newHistogram(){
+        return new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    }
+
+    enum Operation {
+        ADD("add"),
+        GET("get"),
+        SEARCH("search"),
+        PAGE("page");
+
+        final String key;
+
+        Operation(String key){
+            this.key = key;
+        }
+
+        static Operation from(String key){
+            for(Operation operation : values()){
+                if(operation.key.equalsIgnoreCase(key)){
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation " + key + ", expected add, get, search or page");
+        }
+    }
+
+    //One closed- or open-loop client, histograms are per worker and merged at the end so recording is not contended
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final long[] ids;
+        private final Map<Operation, Integer> mix;
+        private final int totalWeight;
+        private final SplittableRandom random;
+        private final long intervalNanos;
+        private final long measureFrom;
+        private final long measureUntil;
+        private long intendedStart;
+        private int added;
+
+        final Map<Operation, Histogram> histograms = new LinkedHashMap<>();
+        final Map<Operation, Long> errors = new LinkedHashMap<>();
+
+        Worker(HttpClient client, String baseUrl, long[] ids, Map<Operation, Integer> mix, SplittableRandom random,
+               long firstStart, long intervalNanos, long measureFrom, long measureUntil){
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.ids = ids;
+            this.mix = mix;
+            this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+            this.random = random;
+            this.intendedStart = firstStart;
+            this.intervalNanos = intervalNanos;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        @Override
+        public void run(){
+            while(true){
+                long sendAt = System.nanoTime();
+                if(intervalNanos > 0){
+                    sendAt = intendedStart;
+                    intendedStart += intervalNanos;
+                    long wait = sendAt - System.nanoTime();
+                    if(wait > 0){
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                if(sendAt >= measureUntil){
+                    return;
+                }
+
+                Operation operation = next();
+                boolean ok = send(operation);
+                long end = System.nanoTime();
+
+                if(sendAt >= measureFrom){
+                    histograms.computeIfAbsent(operation, op -> newHistogram())
+                            .recordValue(Math.min(end - sendAt, HIGHEST_TRACKABLE_NANOS));
+                    if(!ok){
+                        errors.merge(operation, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        private Operation next(){
+            int pick = random.nextInt(totalWeight);
+            for(Map.Entry<Operation, Integer> entry : mix.entrySet()){
+                pick -= entry.getValue();
+                if(pick < 0){
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty mix");
+        }
+
+        private boolean send(Operation operation){
+            HttpRequest request = switch(operation){
+                case ADD -> post("/addEmployee", addBody());
+                case GET -> get("/" + ids[random.nextInt(ids.length)]);
+                case SEARCH -> get("/searchEmployees?department=" + department() + "&minSalary=" + minSalary());
+                case PAGE -> get("/searchEmployeesWithPagination?department=" + department()
+                        + "&page=" + random.nextInt(10) + "&size=20&sort=id");
+            };
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() < 400;
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private String department(){
+            return BenchmarkApplication.DEPARTMENTS[random.nextInt(BenchmarkApplication.DEPARTMENTS.length)];
+        }
+
+        //Keeps the search result around a few hundred rows on the default 10k rows
+        private int minSalary(){
+            return 900_000 + random.nextInt(90_000);
+        }
+
+        private String addBody(){
+            int n = added++;
+            String name = BenchmarkApplication.NAMES[random.nextInt(BenchmarkApplication.NAMES.length)] + " Load " + n;
+            return "{\"name\":\"" + name + "\",\"salary\":" + (100_000 + random.nextInt(900_000))
+                    + ",\"department\":\"" + department() + "\",\"email\":\"load" + System.identityHashCode(this) + "." + n + "@example.com\"}";
+        }
+
+        private HttpRequest get(String path){
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        private HttpRequest post(String path, String body){
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+}
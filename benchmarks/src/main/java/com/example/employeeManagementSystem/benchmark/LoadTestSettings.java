@@ -0,0 +1,84 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//key=value arguments of LoadTestRunner, anything not given keeps the default below
+record LoadTestSettings(Map<LoadTestRunner.Operation, Integer> mix,
+                        int threads,
+                        int rows,
+                        int warmupSeconds,
+                        int durationSeconds,
+                        int rate,
+                        double threshold,
+                        double slackMillis,
+                        String baseline,
+                        String result,
+                        boolean record,
+                        String[] profiles) {
+
+    static final String DEFAULT_MIX = "add:10,get:50,search:20,page:20";
+
+    static LoadTestSettings parse(String[] args){
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("mix", DEFAULT_MIX);
+        values.put("threads", "16");
+        values.put("rows", "10000");
+        values.put("warmup", "10");
+        values.put("duration", "30");
+        values.put("rate", "0");           //requests/s over all threads, 0 = closed loop
+        values.put("threshold", "0.25");   //allowed p99/p999 growth over the baseline
+        values.put("slackMillis", "1");    //and never flag less than this, sub-ms tails are mostly noise
+        values.put("baseline", "loadtest-baseline.json");
+        values.put("result", "target/loadtest-result.json");
+        values.put("record", "false");
+        values.put("profiles", "");      //Spring profiles of the application under test, e.g. virtual
+
+        for(String arg : args){
+            int separator = arg.indexOf('=');
+            if(separator < 0 || !values.containsKey(arg.substring(0, separator))){
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected one of " + values.keySet());
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestSettings(
+                mix(values.get("mix")),
+                Integer.parseInt(values.get("threads")),
+                Integer.parseInt(values.get("rows")),
+                Integer.parseInt(values.get("warmup")),
+                Integer.parseInt(values.get("duration")),
+                Integer.parseInt(values.get("rate")),
+                Double.parseDouble(values.get("threshold")),
+                Double.parseDouble(values.get("slackMillis")),
+                values.get("baseline"),
+                values.get("result"),
+                Boolean.parseBoolean(values.get("record")),
+                values.get("profiles").isBlank() ? new String[0] : values.get("profiles").split(","));
+    }
+
+    //"add:10,get:50" -> {ADD=10, GET=50}
+    private static Map<LoadTestRunner.Operation, Integer> mix(String mix){
+        Map<LoadTestRunner.Operation, Integer> weights = new LinkedHashMap<>();
+        for(String part : mix.split(",")){
+            String[] operationAndWeight = part.trim().split(":");
+            int weight = operationAndWeight.length > 1 ? Integer.parseInt(operationAndWeight[1]) : 1;
+            if(weight > 0){
+                weights.put(LoadTestRunner.Operation.from(operationAndWeight[0]), weight);
+            }
+        }
+        if(weights.isEmpty()){
+            throw new IllegalArgumentException("mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder mixString = new StringBuilder();
+        mix.forEach((operation, weight) -> mixString.append(mixString.isEmpty() ? "" : ",").append(operation.key).append(':').append(weight));
+        return "mix=" + mixString + " threads=" + threads + " rows=" + rows + " warmup=" + warmupSeconds + "s duration=" + durationSeconds
+                + "s rate=" + (rate > 0 ? rate + "/s" : "closed-loop")
+                + (profiles.length > 0 ? " profiles=" + String.join(",", profiles) : "");
+    }
+}
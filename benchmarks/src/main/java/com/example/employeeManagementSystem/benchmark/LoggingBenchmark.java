@@ -0,0 +1,105 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.employeeManagementSystem.logging.PayloadLogging;
+import com.example.employeeManagementSystem.mapper.EmployeeMapperImpl;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Logging cost of one searchEmployees request (the two INFO lines of the controller) on the request thread :
+//  full-sync     - whole result list stringified, written by the console appender on the calling thread (before)
+//  capped-sync   - PayloadLogging, first max-items elements only, still written on the calling thread
+//  capped-async  - PayloadLogging behind an AsyncAppender as in logback-spring.xml (after, sample-rate 1)
+//  sampled-async - as capped-async with the default searchEmployees sample rate of 0.01 (after)
+//Output goes to a null stream with Spring Boot's console pattern, so only formatting/encoding is measured, not the terminal.
+//With neverBlock the async appender drops events once its queue is full - the request thread never waits on the writer
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"full-sync", "capped-sync", "capped-async", "sampled-async"})
+    String logging;
+
+    @Param({"10", "1000"})
+    int listSize;
+
+    List<EmployeeResponseDto> employees;
+    PayloadLogging payloadLogging;
+    LoggerContext loggerContext;
+    Logger logger;
+
+    @Setup
+    public void setUp(){
+        EmployeeMapperImpl employeeMapper = new EmployeeMapperImpl();
+        employees = new ArrayList<>(listSize);
+        for(int i = 0; i < listSize; i++){
+            employees.add(employeeMapper.toResponseDto(BenchmarkApplication.employee(i)));
+        }
+        payloadLogging = new PayloadLogging(3, 512, logging.equals("sampled-async") ? 0.01 : 1.0, "");
+
+        //Own logger context, independent of the benchmark's own logging configuration
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter()); //set by the SLF4J binding in the application
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(loggerContext);
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        Appender<ILoggingEvent> appender = console;
+        if(logging.endsWith("async")){
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(console);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        logger = loggerContext.getLogger("com.example.employeeManagementSystem.controller.EmployeeController");
+    }
+
+    @TearDown
+    public void tearDown(){
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void searchEmployeesRequest(){
+        logger.info("searchEmployees, name is {}, department is {}, minSalary is {}", null, "Cricket", 500000);
+        if(logging.equals("full-sync")){
+            logger.info("searchEmployees, resultList is {}", employees);
+        }else{
+            logger.info("searchEmployees, resultList is {}", payloadLogging.of("searchEmployees", employees));
+        }
+    }
+}
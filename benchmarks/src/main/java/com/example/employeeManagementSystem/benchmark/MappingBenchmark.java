@@ -0,0 +1,47 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.mapper.EmployeeMapper;
+import com.example.employeeManagementSystem.mapper.EmployeeMapperImpl;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Employee -> EmployeeResponseDto : reflective ModelMapper vs generated EmployeeMapper vs hand-written
+//Run with "-prof gc" to get the allocation rate per op as well
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    Employee employee;
+    ModelMapper modelMapper;
+    EmployeeMapper employeeMapper;
+
+    @Setup
+    public void setUp(){
+        employee = BenchmarkApplication.employee(42L);
+        modelMapper = new ModelMapper();
+        employeeMapper = new EmployeeMapperImpl();
+    }
+
+    @Benchmark
+    public EmployeeResponseDto modelMapper(){
+        return modelMapper.map(employee, EmployeeResponseDto.class);
+    }
+
+    @Benchmark
+    public EmployeeResponseDto generatedMapper(){
+        return employeeMapper.toResponseDto(employee);
+    }
+
+    @Benchmark
+    public EmployeeResponseDto handWritten(){
+        return new EmployeeResponseDto(employee.getId(), employee.getName(), employee.getSalary(), employee.getDepartment(), employee.getEmail(), employee.getVersion());
+    }
+}
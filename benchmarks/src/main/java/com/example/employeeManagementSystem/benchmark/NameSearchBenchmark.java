@@ -0,0 +1,60 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Substring name searches with NameIndex (trigram candidates, id IN (...)) vs LIKE '%term%' over name_lower (index off)
+//"hin 12" is a selective term (Sachin 12, 120..129, 1200.. - about 0.1% of the rows)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    int rowCount;
+
+    @Param({"true", "false"})
+    boolean nameIndex;
+
+    ConfigurableApplicationContext context;
+    EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        System.setProperty("employee.search.name-index.enabled", String.valueOf(nameIndex));
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rowCount);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+        System.clearProperty("employee.search.name-index.enabled");
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> searchByName(){
+        return employeeService.searchEmployees("hin 12", null, null);
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDto> searchByNameWithPagination(){
+        return employeeService.searchEmployeesWithPagination("hin 12", "Cricket", null, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> searchByNameNoMatch(){
+        return employeeService.searchEmployees("gavaskar", null, null);
+    }
+}
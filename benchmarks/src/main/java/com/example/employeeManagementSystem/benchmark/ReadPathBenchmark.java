@@ -0,0 +1,61 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.mapper.EmployeeMapper;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+//A page of 100 employees - managed entities copied to EmployeeResponseDto vs the DTO projection (getAllEmployeesWithPagination)
+//Run with "-prof gc" to get the allocated bytes per op as well
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    @Param({"1000", "10000"})
+    int rowCount;
+
+    ConfigurableApplicationContext context;
+    EmployeeRepository employeeRepository;
+    EmployeeMapper employeeMapper;
+    TransactionTemplate readOnlyTransaction;
+    Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rowCount);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeMapper = context.getBean(EmployeeMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        pageable = PageRequest.of(3, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    //What the read paths did before : load entities into the persistence context, then map them
+    @Benchmark
+    public Page<EmployeeResponseDto> entityPage(){
+        return readOnlyTransaction.execute(status -> employeeRepository.findAll(pageable).map(employeeMapper::toResponseDto));
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDto> projectionPage(){
+        return readOnlyTransaction.execute(status -> employeeRepository.findAllDtos(pageable));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+//Body of a 10k row getAllEmployees/searchEmployees response per format (MessageConverterConfig), with and without the
+//gzip of server.compression - CPU per response here, the payload size is printed once per trial ("payload ... bytes")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+
+    @Param({"10000"})
+    int rowCount;
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    List<EmployeeResponseDto> employees;
+    ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        employees = new ArrayList<>(rowCount);
+        for(int i = 0; i < rowCount; i++){
+            String name = BenchmarkApplication.NAMES[random.nextInt(BenchmarkApplication.NAMES.length)] + " " + i;
+            String department = BenchmarkApplication.DEPARTMENTS[random.nextInt(BenchmarkApplication.DEPARTMENTS.length)];
+            employees.add(new EmployeeResponseDto((long) i + 1, name, 100_000 + random.nextInt(900_000), department,
+                    "employee" + i + "@example.com", (long) random.nextInt(5)));
+        }
+
+        ObjectMapper objectMapper = switch (format){
+            case "smile" -> new SmileMapper();
+            case "cbor" -> new CBORMapper();
+            default -> new ObjectMapper();
+        };
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeResponseDto.class));
+        System.out.printf("%npayload %s%s, %d rows : %,d bytes%n", format, gzip ? "+gzip" : "", rowCount, write().length);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+        if(gzip){
+            try(OutputStream gzipOutputStream = new GZIPOutputStream(body, 8192)){ //default level, as Tomcat compresses
+                listWriter.writeValue(gzipOutputStream, employees);
+            }
+        }else{
+            listWriter.writeValue(body, employees);
+        }
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Salary distribution of a department/salary range - what dashboards did (searchEmployees, aggregate the boxed salaries
+//on their side) vs getSalaryDistribution served from the in-memory SalarySnapshot
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SalaryDistributionBenchmark {
+
+    private static final List<Double> PERCENTILES = List.of(50.0, 90.0, 99.0);
+
+    @Param({"10000", "100000"})
+    int rowCount;
+
+    ConfigurableApplicationContext context;
+    EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rowCount);
+        employeeService = context.getBean(EmployeeService.class);
+        employeeService.getSalaryDistribution(null, null, null, PERCENTILES); //snapshot loaded outside the measurement
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public double[] searchAndAggregate(){
+        int[] salaries = employeeService.searchEmployees(null, "Cricket", 300_000).stream()
+                .map(EmployeeResponseDto::getSalary)
+                .filter(salary -> salary <= 700_000)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        double[] result = new double[PERCENTILES.size() + 1];
+        result[0] = Arrays.stream(salaries).average().orElse(0);
+        for(int i = 0; i < PERCENTILES.size(); i++){
+            result[i + 1] = salaries.length == 0 ? 0 : salaries[(int) Math.ceil(PERCENTILES.get(i) / 100.0 * salaries.length) - 1];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public SalaryDistributionDto snapshot(){
+        return employeeService.getSalaryDistribution("Cricket", 300_000, 700_000, PERCENTILES);
+    }
+
+    //Whole table, no filter - the scan is split over the cores once the table is larger than one chunk
+    @Benchmark
+    public SalaryDistributionDto snapshotAllRows(){
+        return employeeService.getSalaryDistribution(null, null, null, PERCENTILES);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.mapper.EmployeeMapper;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//searchEmployees - old in-memory stream filter over findAll() vs the Specification query, and searchEmployeesWithPagination
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int rowCount;
+
+    ConfigurableApplicationContext context;
+    EmployeeService employeeService;
+    EmployeeRepository employeeRepository;
+    EmployeeMapper employeeMapper;
+    TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rowCount);
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeMapper = context.getBean(EmployeeMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    //What searchEmployees did before : load the whole table, filter with a Java stream
+    @Benchmark
+    public List<EmployeeResponseDto> searchInMemoryStream(){
+        return readOnlyTransaction.execute(status -> employeeRepository.findAll().stream()
+                .filter(emp -> emp.getName().toLowerCase().contains("sachin"))
+                .filter(emp -> emp.getDepartment().equalsIgnoreCase("Cricket"))
+                .filter(emp -> emp.getSalary() >= 800_000)
+                .map(employeeMapper::toResponseDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<EmployeeResponseDto> searchSpecification(){
+        return employeeService.searchEmployees("sachin", "Cricket", 800_000);
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDto> searchWithPagination(){
+        return employeeService.searchEmployeesWithPagination("sachin", "Cricket", 800_000, PageRequest.of(2, 20));
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDto> searchWithPaginationDeepPage(){
+        return employeeService.searchEmployeesWithPagination(null, "Cricket", null, PageRequest.of(rowCount / 200, 20));
+    }
+}
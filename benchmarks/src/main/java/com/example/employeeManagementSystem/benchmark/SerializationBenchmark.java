@@ -0,0 +1,51 @@
+package com.example.employeeManagementSystem.benchmark;
+
+import com.example.employeeManagementSystem.mapper.EmployeeMapperImpl;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//JSON serialization of List<EmployeeResponseDto> (the body of getAllEmployees/searchEmployees)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int listSize;
+
+    List<EmployeeResponseDto> employees;
+    ObjectMapper objectMapper;
+    ObjectWriter listWriter;
+
+    @Setup
+    public void setUp(){
+        EmployeeMapperImpl employeeMapper = new EmployeeMapperImpl();
+        employees = new ArrayList<>(listSize);
+        for(int i = 0; i < listSize; i++){
+            employees.add(employeeMapper.toResponseDto(BenchmarkApplication.employee(i)));
+        }
+        objectMapper = new ObjectMapper();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeResponseDto.class));
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+
+    //Pre-resolved writer, skips the serializer lookup of the runtime type on every call
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(employees);
+    }
+}
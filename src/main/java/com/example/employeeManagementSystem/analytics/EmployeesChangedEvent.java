@@ -0,0 +1,24 @@
+package com.example.employeeManagementSystem.analytics;
+
+import java.util.Collection;
+import java.util.List;
+
+//Published by the write paths of EmployeeServiceImpl/EmployeeBatchWriter inside their transaction, applied to
+//SalarySnapshot after commit. Set-based updates do not know the rows they changed and ask for a reload instead
+public record EmployeesChangedEvent(
+        List<SalaryRow> upserted,
+        Collection<Long> deletedIds,
+        boolean reload
+){
+    public static EmployeesChangedEvent upserted(List<SalaryRow> rows){
+        return new EmployeesChangedEvent(rows, List.of(), false);
+    }
+
+    public static EmployeesChangedEvent deleted(Collection<Long> ids){
+        return new EmployeesChangedEvent(List.of(), ids, false);
+    }
+
+    public static EmployeesChangedEvent reloadAll(){
+        return new EmployeesChangedEvent(List.of(), List.of(), true);
+    }
+}
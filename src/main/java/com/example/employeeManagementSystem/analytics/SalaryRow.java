@@ -0,0 +1,14 @@
+package com.example.employeeManagementSystem.analytics;
+
+import com.example.employeeManagementSystem.model.entity.Employee;
+
+//The columns of an employee kept by SalarySnapshot
+public record SalaryRow(
+        Long id,
+        Integer salary,
+        String department
+){
+    public static SalaryRow of(Employee employee){
+        return new SalaryRow(employee.getId(), employee.getSalary(), employee.getDepartment());
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.employeeManagementSystem.analytics;
+
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+//Columnar in-memory copy of (id, salary, department) for salary analytics, so dashboards do not load Employee entities.
+//Ids and salaries are primitive arrays, departments are dictionary encoded (int code per row, one String per department,
+//lower-cased - the department filter ignores case like the database searches).
+//Rows are kept in salary order with prefix sums : a salary range is a binary search, the whole range answers count/sum/
+//min/max/percentiles without touching the rows, a department filter scans only the range (in parallel chunks).
+//A snapshot is immutable - queries read the current one without locks, changes build a new one and swap it in.
+//
+//Loaded on the first query. Writes publish EmployeesChangedEvent, which is queued after commit and merged into a new
+//snapshot by the next query (upserts/deletes by id, one merge pass over the rows). raiseSalary (a set-based update
+//that does not know its rows) and snapshots older than employee.analytics.max-age reload from the database.
+//Employees without a salary are not part of it.
+@Component
+public class SalarySnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalarySnapshot.class);
+
+    //Rows per scan task - smaller tables are scanned on the calling thread, larger ones in parallel on the common pool
+    static final int CHUNK_SIZE = 16_384;
+
+    private static final int ANY_DEPARTMENT = -1;
+    private static final int UNKNOWN_DEPARTMENT = -2;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long maxAgeNanos;
+
+    //Committed changes not merged yet
+    private final Queue<EmployeesChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final Object refreshLock = new Object();
+    private volatile Columns columns;
+
+    //Constructor Injection
+    public SalarySnapshot(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager,
+                          @Value("${employee.analytics.max-age:10m}") Duration maxAge) {
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    //After commit only - a rolled back write never reaches the snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeesChangedEvent event){
+        pending.add(event);
+    }
+
+    //count/sum/min/max/average and nearest-rank percentiles (0 < p <= 100) of the salaries of the matching employees,
+    //every filter is optional, salary bounds are inclusive
+    public SalaryDistributionDto distribution(String department, Integer minSalary, Integer maxSalary, List<Double> percentiles){
+        Columns current = current();
+
+        int departmentCode = ANY_DEPARTMENT;
+        if(department != null && !department.isBlank()){
+            departmentCode = current.codes.getOrDefault(department.toLowerCase(Locale.ROOT), UNKNOWN_DEPARTMENT);
+        }
+        if(departmentCode == UNKNOWN_DEPARTMENT){
+            return new SalaryDistributionDto(0, 0, null, null, null, Map.of());
+        }
+
+        //Rows are in salary order, so the salary range is a slice found by binary search
+        int from = minSalary == null ? 0 : current.firstAtLeast(minSalary);
+        int to = maxSalary == null ? current.size : current.firstAbove(maxSalary);
+        if(from >= to){
+            return new SalaryDistributionDto(0, 0, null, null, null, Map.of());
+        }
+
+        Scan scan;
+        if(departmentCode == ANY_DEPARTMENT){
+            scan = current.slice(from, to); //O(1), no scan at all
+        }else{
+            int code = departmentCode;
+            boolean collect = !percentiles.isEmpty();
+            int chunks = (to - from + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream chunkStream = IntStream.range(0, chunks);
+            if(chunks > 1){
+                chunkStream = chunkStream.parallel();
+            }
+            //reduce keeps the encounter order, so the collected salaries stay sorted
+            scan = chunkStream
+                    .mapToObj(chunk -> current.scan(code, from + chunk * CHUNK_SIZE, Math.min(from + (chunk + 1) * CHUNK_SIZE, to), collect))
+                    .reduce(Scan::merge)
+                    .orElseThrow();
+        }
+
+        if(scan.count == 0){
+            return new SalaryDistributionDto(0, 0, null, null, null, Map.of());
+        }
+
+        Map<String, Integer> percentileValues = new LinkedHashMap<>();
+        for(double percentile : percentiles){
+            int rank = Math.max((int) Math.ceil(percentile / 100.0 * scan.count), 1);
+            percentileValues.put(percentileName(percentile), scan.valueAt(rank - 1));
+        }
+
+        double average = Math.round((double) scan.sum / scan.count * 100) / 100.0;
+        return new SalaryDistributionDto(scan.count, scan.sum, scan.min, scan.max, average, percentileValues);
+    }
+
+    //50.0 -> p50, 99.9 -> p99.9
+    private static String percentileName(double percentile){
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    private Columns current(){
+        Columns current = columns;
+        if(current != null && pending.isEmpty() && System.nanoTime() - current.loadedAt < maxAgeNanos){
+            return current;
+        }
+
+        synchronized (refreshLock){
+            current = columns;
+            boolean reload = current == null || System.nanoTime() - current.loadedAt >= maxAgeNanos;
+
+            List<EmployeesChangedEvent> changes = new ArrayList<>();
+            EmployeesChangedEvent event;
+            while((event = pending.poll()) != null){
+                if(event.reload()){
+                    reload = true;
+                    changes.clear(); //part of the reload
+                }else{
+                    changes.add(event);
+                }
+            }
+
+            //A reload sees every commit so far, changes queued meanwhile are applied again on top - upserts and deletes
+            //by id are idempotent
+            if(reload){
+                current = load();
+            }
+            if(!changes.isEmpty()){
+                current = current.apply(changes);
+            }
+            columns = current;
+            return current;
+        }
+    }
+
+    private Columns load(){
+        long start = System.nanoTime();
+        Columns loaded = readOnlyTransaction.execute(status -> {
+            try(Stream<SalaryRow> rows = employeeRepository.streamSalaryRows()){
+                return Columns.load(rows.iterator());
+            }
+        });
+        logger.info("load, {} rows and {} departments in {} ms", loaded.size, loaded.dictionary.length,
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    //One immutable version of the snapshot, rows sorted by (salary, id), prefixSums[i] = sum of salaries[0..i)
+    static final class Columns {
+        final long[] ids;
+        final int[] salaries;
+        final int[] departments;
+        final long[] prefixSums;
+        final int size;
+        final String[] dictionary;
+        final Map<String, Integer> codes;
+        final long loadedAt;
+
+        private Columns(Builder builder){
+            this.ids = builder.ids;
+            this.salaries = builder.salaries;
+            this.departments = builder.departments;
+            this.size = builder.size;
+            this.prefixSums = new long[size + 1];
+            for(int row = 0; row < size; row++){
+                prefixSums[row + 1] = prefixSums[row] + salaries[row];
+            }
+            this.dictionary = builder.dictionary.toArray(new String[0]);
+            this.codes = builder.codes;
+            this.loadedAt = builder.loadedAt;
+        }
+
+        static Columns load(Iterator<SalaryRow> rows){
+            Builder builder = new Builder(1024, List.of(), System.nanoTime());
+            while(rows.hasNext()){
+                SalaryRow row = rows.next();
+                if(row.salary() != null){
+                    builder.append(row.id(), row.salary(), builder.code(row.department()));
+                }
+            }
+            return builder.sortBySalary().build();
+        }
+
+        //Merges upserts/deletes (the last change of an id wins) into a copy : the unchanged rows keep their order,
+        //the new versions of changed rows are sorted on their own and merged in - O(rows + changes log changes)
+        Columns apply(List<EmployeesChangedEvent> events){
+            Map<Long, SalaryRow> changes = new HashMap<>(); //null value = delete
+            for(EmployeesChangedEvent event : events){
+                event.upserted().forEach(row -> changes.put(row.id(), row.salary() == null ? null : row));
+                event.deletedIds().forEach(id -> changes.put(id, null));
+            }
+            long[] changedIds = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+            Builder upserts = new Builder(changes.size(), Arrays.asList(dictionary), loadedAt);
+            changes.values().stream()
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(SalaryRow::salary).thenComparing(SalaryRow::id))
+                    .forEach(row -> upserts.append(row.id(), row.salary(), upserts.code(row.department())));
+
+            Builder builder = new Builder(size + upserts.size, upserts.dictionary, loadedAt);
+            int next = 0;
+            for(int row = 0; row < size; row++){
+                if(Arrays.binarySearch(changedIds, ids[row]) >= 0){
+                    continue; //deleted, or its new version comes from upserts
+                }
+                while(next < upserts.size && (upserts.salaries[next] < salaries[row]
+                        || (upserts.salaries[next] == salaries[row] && upserts.ids[next] < ids[row]))){
+                    builder.append(upserts.ids[next], upserts.salaries[next], upserts.departments[next]);
+                    next++;
+                }
+                builder.append(ids[row], salaries[row], departments[row]);
+            }
+            for(; next < upserts.size; next++){
+                builder.append(upserts.ids[next], upserts.salaries[next], upserts.departments[next]);
+            }
+            return builder.build();
+        }
+
+        //First row with salary >= value
+        int firstAtLeast(int value){
+            int low = 0;
+            int high = size;
+            while(low < high){
+                int middle = (low + high) >>> 1;
+                if(salaries[middle] < value){
+                    low = middle + 1;
+                }else{
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        //First row with salary > value
+        int firstAbove(int value){
+            return value == Integer.MAX_VALUE ? size : firstAtLeast(value + 1);
+        }
+
+        //Every row of [from, to) matches - answered from the prefix sums and the sorted salaries directly
+        Scan slice(int from, int to){
+            Scan scan = new Scan(false);
+            scan.count = to - from;
+            scan.sum = prefixSums[to] - prefixSums[from];
+            scan.min = salaries[from];
+            scan.max = salaries[to - 1];
+            scan.sorted = salaries;
+            scan.offset = from;
+            return scan;
+        }
+
+        //Sequential scan of rows [from, to) for one department - int comparisons on the primitive columns only
+        Scan scan(int department, int from, int to, boolean collect){
+            Scan scan = new Scan(collect);
+            for(int row = from; row < to; row++){
+                if(departments[row] == department){
+                    scan.add(salaries[row]);
+                }
+            }
+            return scan;
+        }
+    }
+
+    private static final class Builder {
+        private long[] ids;
+        private int[] salaries;
+        private int[] departments;
+        private int size;
+        private final List<String> dictionary;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final long loadedAt;
+
+        Builder(int capacity, List<String> dictionary, long loadedAt){
+            this.ids = new long[Math.max(capacity, 16)];
+            this.salaries = new int[ids.length];
+            this.departments = new int[ids.length];
+            this.dictionary = new ArrayList<>(dictionary);
+            for(int code = 0; code < dictionary.size(); code++){
+                codes.put(dictionary.get(code), code);
+            }
+            this.loadedAt = loadedAt;
+        }
+
+        //Dictionary code of a department (ignoring case), null departments get a code of their own
+        int code(String department){
+            return codes.computeIfAbsent(department == null ? "" : department.toLowerCase(Locale.ROOT), name -> {
+                dictionary.add(name);
+                return dictionary.size() - 1;
+            });
+        }
+
+        void append(long id, int salary, int department){
+            if(size == ids.length){
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                salaries = Arrays.copyOf(salaries, capacity);
+                departments = Arrays.copyOf(departments, capacity);
+            }
+            ids[size] = id;
+            salaries[size] = salary;
+            departments[size] = department;
+            size++;
+        }
+
+        //Reorders the rows (appended in id order) by salary - sorts (salary, position) packed into one long, no boxing
+        Builder sortBySalary(){
+            long[] keys = new long[size];
+            for(int row = 0; row < size; row++){
+                keys[row] = ((long) salaries[row] << 32) | row;
+            }
+            Arrays.parallelSort(keys);
+
+            long[] sortedIds = new long[size];
+            int[] sortedSalaries = new int[size];
+            int[] sortedDepartments = new int[size];
+            for(int i = 0; i < size; i++){
+                int row = (int) keys[i];
+                sortedIds[i] = ids[row];
+                sortedSalaries[i] = salaries[row];
+                sortedDepartments[i] = departments[row];
+            }
+            ids = sortedIds;
+            salaries = sortedSalaries;
+            departments = sortedDepartments;
+            return this;
+        }
+
+        Columns build(){
+            return new Columns(this);
+        }
+    }
+
+    //Aggregate of one chunk, merged pairwise. Salaries are seen in ascending order, so the collected values are sorted
+    static final class Scan {
+        int count;
+        long sum;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int[] sorted;
+        int offset;
+
+        Scan(boolean collect){
+            this.sorted = collect ? new int[64] : null;
+        }
+
+        void add(int salary){
+            if(sorted != null){
+                if(count == sorted.length){
+                    sorted = Arrays.copyOf(sorted, sorted.length * 2);
+                }
+                sorted[count] = salary;
+            }
+            count++;
+            sum += salary;
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+        }
+
+        Scan merge(Scan other){
+            if(sorted != null){
+                int[] merged = Arrays.copyOf(sorted, count + other.count);
+                System.arraycopy(other.sorted, 0, merged, count, other.count);
+                sorted = merged;
+            }
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            return this;
+        }
+
+        int valueAt(int index){
+            return sorted[offset + index];
+        }
+    }
+}
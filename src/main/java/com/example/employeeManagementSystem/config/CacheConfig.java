@@ -0,0 +1,31 @@
+package com.example.employeeManagementSystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    //Employee by id (EmployeeResponseDto), read-through from getEmployeeById/searchEmployeeById
+    public static final String EMPLOYEES_CACHE = "employees";
+
+    //Bounded Caffeine cache (size + TTL from employee.cache.spec, recordStats for the actuator cache.* metrics)
+    //Transaction aware - puts/evictions from @Transactional methods are applied after commit, so a rolled back update
+    //never leaves its value in the cache and a concurrent read can not re-cache the old row before the commit
+    @Bean
+    public CacheManager cacheManager(@Value("${employee.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String cacheSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(cacheSpec);
+        caffeineCacheManager.setCacheNames(List.of(EMPLOYEES_CACHE)); //created at startup, so the metrics binder sees it
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
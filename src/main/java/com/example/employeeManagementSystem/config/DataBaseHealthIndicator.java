@@ -1,24 +1,97 @@
 package com.example.employeeManagementSystem.config;
-import org.springframework.core.env.Environment;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+//Database health for /actuator/health, checked in the background every employee.health.db.interval on the
+//HealthConfig.DB_HEALTH_SCHEDULER thread.
+//health() only returns the last result, so a probe never waits for (or takes) a pool connection.
+//  - DOWN     : connection not valid / failing, or no check finished within employee.health.db.stale-after (check hangs)
+//  - DEGRADED : connected, but the pool is under pressure - requests waiting for a connection, more than max-usage of
+//               the pool in use or p99 connection acquire time above max-acquire-time (answers 200, see status.order)
+//  - UP       : otherwise
+//Without an idle connection in the pool the check does not borrow one, it keeps the last connectivity result.
 @Component
 public class DataBaseHealthIndicator implements HealthIndicator {
 
+    private static final Logger logger = LoggerFactory.getLogger(DataBaseHealthIndicator.class);
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Connection pool under pressure");
+
+    //Micrometer timer of Hikari's getConnection(), percentiles from management.metrics.distribution.percentiles
+    static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+
     private final DataSource dataSource;
     private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final Duration staleAfter;
+    private final double maxUsage;
+    private final Duration maxAcquireTime;
+
+    private final TaskScheduler scheduler;
+    private volatile ScheduledFuture<?> scheduled;
+
+    //Written by the db-health thread only
+    private volatile Result last;
+    private Map<String, Object> databaseDetails; //product/driver names, read on the first valid connection
+    private String connectivityError; //null while the last connection check passed
 
     //Constructor Injection
-    public DataBaseHealthIndicator(DataSource dataSource, Environment environment){
+    public DataBaseHealthIndicator(DataSource dataSource, Environment environment, MeterRegistry meterRegistry,
+                                   @Qualifier(HealthConfig.DB_HEALTH_SCHEDULER) TaskScheduler scheduler,
+                                   @Value("${employee.health.db.interval:5s}") Duration interval,
+                                   @Value("${employee.health.db.stale-after:60s}") Duration staleAfter,
+                                   @Value("${employee.health.db.max-usage:0.9}") double maxUsage,
+                                   @Value("${employee.health.db.max-acquire-time:250ms}") Duration maxAcquireTime){
         this.dataSource = dataSource;
         this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = scheduler;
+        this.interval = interval;
+        this.staleAfter = staleAfter;
+        this.maxUsage = maxUsage;
+        this.maxAcquireTime = maxAcquireTime;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(){
+        scheduled = scheduler.scheduleWithFixedDelay(this::check, interval);
+    }
+
+    //The scheduler itself is shut down with the context, this only stops the checks before the DataSource goes away
+    @PreDestroy
+    public void shutdown(){
+        ScheduledFuture<?> future = scheduled;
+        if(future != null){
+            future.cancel(true);
+        }
     }
 
     @Override //http://localhost:8080/actuator/health
@@ -34,29 +107,130 @@ public class DataBaseHealthIndicator implements HealthIndicator {
                     .build();
         }
 
-        // Normal DB check for all other profiles
+        Result result = last;
+        if(result == null){
+            return Health.unknown().withDetail("Reason", "First check not finished yet").build();
+        }
+        Duration age = Duration.between(result.checkedAt(), Instant.now());
+        if(age.compareTo(staleAfter) > 0){
+            return Health.down()
+                    .withDetail("Reason", "No database check finished for " + age.toSeconds() + "s")
+                    .withDetail("lastStatus", result.health().getStatus().getCode())
+                    .withDetail("checkedAt", result.checkedAt().toString())
+                    .build();
+        }
+        return result.health();
+    }
+
+    //One background check - never throws, the scheduler would stop on an exception
+    void check(){
+        try{
+            last = new Result(measure(), Instant.now());
+        }catch (RuntimeException e){
+            logger.warn("check, database health check failed", e);
+            last = new Result(Health.down(e).build(), Instant.now());
+        }
+    }
+
+    private Health measure(){
+        long start = System.nanoTime();
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        int maximum = hikari == null ? 0 : hikari.getMaximumPoolSize();
+        int pending = pool == null ? 0 : pool.getThreadsAwaitingConnection();
+
+        //Saturated pool : do not take (or wait for) a connection the requests need, they are using the database anyway
+        boolean saturated = pool != null && (pending > 0 || (pool.getIdleConnections() == 0 && pool.getTotalConnections() >= maximum));
+        if(!saturated){
+            connectivityError = checkConnection();
+        }
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        if(databaseDetails != null){
+            details.putAll(databaseDetails);
+        }
+        details.put("connectionCheck", saturated ? "skipped, no idle connection" : "done");
+
+        Status status = connectivityError == null ? Status.UP : Status.DOWN;
+        if(connectivityError != null){
+            details.put("Reason", connectivityError);
+        }
+        if(pool != null){
+            int active = pool.getActiveConnections();
+            Map<String, Object> poolDetails = new LinkedHashMap<>();
+            poolDetails.put("active", active);
+            poolDetails.put("idle", pool.getIdleConnections());
+            poolDetails.put("pending", pending);
+            poolDetails.put("total", pool.getTotalConnections());
+            poolDetails.put("max", maximum);
+            details.put("pool", poolDetails);
+
+            double p99 = acquirePercentiles(details);
+            String pressure = pending > 0 ? pending + " requests waiting for a connection"
+                    : active >= maxUsage * maximum ? active + " of " + maximum + " connections in use"
+                    : p99 > maxAcquireTime.toNanos() / 1e6 ? "p99 connection acquire time " + p99 + " ms"
+                    : null;
+            if(pressure != null && status == Status.UP){
+                status = DEGRADED;
+                details.put("Reason", pressure);
+            }
+        }
+        details.put("checkedAt", Instant.now().toString());
+        details.put("checkMillis", (System.nanoTime() - start) / 1_000_000);
+        return Health.status(status).withDetails(details).build();
+    }
+
+    //null when the connection is valid
+    private String checkConnection(){
         try(Connection connection = dataSource.getConnection()){
-            if(connection.isValid(1)){ // 1 second timeout
+            if(!connection.isValid(1)){ // 1 second timeout
+                return "Connection is not valid";
+            }
+            if(databaseDetails == null){
                 DatabaseMetaData dataBaseMetaData = connection.getMetaData();
+                Map<String, Object> metaData = new LinkedHashMap<>();
+                metaData.put("Database", "Connected Successfully");
+                metaData.put("DataBaseName", dataBaseMetaData.getDatabaseProductName());
+                metaData.put("DataBaseVersion", dataBaseMetaData.getDatabaseProductVersion());
+                metaData.put("Driver", dataBaseMetaData.getDriverName());
+                metaData.put("DriverVersion", dataBaseMetaData.getDriverVersion());
+                databaseDetails = metaData;
+            }
+            return null;
+        }catch (SQLException e){
+            return "Failed to connect " + e.getMessage();
+        }
+    }
 
-                return Health.up()
-                        .withDetail("Database", "Connected Successfully")
-                        .withDetail("DataBaseName", dataBaseMetaData.getDatabaseProductName())
-                        .withDetail("DataBaseVersion", dataBaseMetaData.getDatabaseProductVersion())
-                        .withDetail("Driver", dataBaseMetaData.getDriverName())
-                        .withDetail("DriverVersion", dataBaseMetaData.getDriverVersion())
-                        .build();
-            }else{
-                return Health.down()
-                        .withDetail("Reason","Connection is not valid")
-                        .build();
+    //acquire time p50/p99/max (ms) of the recent window into details, returns the p99 (0 without samples)
+    private double acquirePercentiles(Map<String, Object> details){
+        Timer timer = meterRegistry.find(ACQUIRE_TIMER).timer();
+        if(timer == null || timer.count() == 0){
+            return 0;
+        }
+        Map<String, Object> acquireMillis = new LinkedHashMap<>();
+        double p99 = 0;
+        for(ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()){
+            double millis = percentile.value(TimeUnit.MILLISECONDS);
+            acquireMillis.put("p" + Math.round(percentile.percentile() * 100), millis);
+            if(percentile.percentile() == 0.99){
+                p99 = millis;
             }
+        }
+        acquireMillis.put("max", timer.max(TimeUnit.MILLISECONDS));
+        details.put("acquireMillis", acquireMillis);
+        return p99;
+    }
 
+    //null when the DataSource is not Hikari (its pool MXBean is null until the first getConnection)
+    private HikariDataSource hikari(){
+        try{
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
         }catch (SQLException e){
-            return Health.down()
-                    .withDetail("error", "Failed to connect "+e.getMessage())
-                    .withException(e)
-                    .build();
+            return null;
         }
     }
+
+    private record Result(Health health, Instant checkedAt){
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.employeeManagementSystem.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class HealthConfig {
+
+    public static final String DB_HEALTH_SCHEDULER = "dbHealthScheduler";
+
+    //One thread for the background DataBaseHealthIndicator checks, stopped with the context
+    @Bean(name = DB_HEALTH_SCHEDULER)
+    public ThreadPoolTaskScheduler dbHealthScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("db-health-");
+        scheduler.setDaemon(true);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
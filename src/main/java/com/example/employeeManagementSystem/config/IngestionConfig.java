@@ -0,0 +1,25 @@
+package com.example.employeeManagementSystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IngestionConfig {
+
+    public static final String INGESTION_EXECUTOR = "ingestionExecutor";
+
+    //Workers of the ingestion jobs - fixed size and a bounded queue, a full queue rejects the submit (503) instead of
+    //piling up payloads. Kept apart from the request threads and the applicationTaskExecutor (async exports)
+    @Bean(name = INGESTION_EXECUTOR)
+    public ThreadPoolTaskExecutor ingestionExecutor(@Value("${employee.ingestion.workers:2}") int workers,
+                                                    @Value("${employee.ingestion.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ingestion-");
+        return executor;
+    }
+}
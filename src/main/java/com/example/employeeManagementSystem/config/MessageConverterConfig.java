@@ -0,0 +1,29 @@
+package com.example.employeeManagementSystem.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+//Binary encodings of the same DTOs next to JSON, picked by the Accept header (JSON stays the default) :
+//  application/cbor           - CBOR (RFC 8949), readable by any CBOR library
+//  application/x-jackson-smile - Smile, Jackson's binary JSON, back-references repeated field names and short strings
+//Both replace the converters Spring MVC would add on its own, so they are built from Boot's Jackson2ObjectMapperBuilder
+//(prototype bean) and share the spring.jackson.* settings of the JSON converter.
+//Compression of large responses is server.compression.* (application.properties).
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder){
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder){
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.employeeManagementSystem.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SearchConfig {
+
+    public static final String NAME_INDEX_EXECUTOR = "nameIndexExecutor";
+
+    //One thread for the NameIndex loads - only one runs at a time, so no queue. Interrupted on shutdown, a half built
+    //index is simply dropped
+    @Bean(name = NAME_INDEX_EXECUTOR)
+    public ThreadPoolTaskExecutor nameIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("name-index-load-");
+        return executor;
+    }
+}
@@ -1,8 +1,20 @@
 package com.example.employeeManagementSystem.controller;
 
+import com.example.employeeManagementSystem.logging.PayloadLogging;
+import com.example.employeeManagementSystem.model.dto.BulkDeleteResponseDto;
+import com.example.employeeManagementSystem.model.dto.BulkUpdateResponseDto;
+import com.example.employeeManagementSystem.model.dto.CursorPageDto;
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.ExportFormat;
+import com.example.employeeManagementSystem.model.dto.ImportSummaryDto;
+import com.example.employeeManagementSystem.model.dto.IngestionJobDto;
+import com.example.employeeManagementSystem.model.dto.MultiGetResponseDto;
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
+import com.example.employeeManagementSystem.service.EmployeeIngestionService;
 import com.example.employeeManagementSystem.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,12 +22,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 
 @RestController
@@ -24,14 +41,22 @@ public class EmployeeController {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
 
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    static final String UPDATED_COUNT_HEADER = "X-Updated-Count";
+
     private final EmployeeService employeeService;
-    public EmployeeController(EmployeeService employeeService) {
+    private final EmployeeIngestionService employeeIngestionService;
+    private final PayloadLogging payloadLogging;
+    public EmployeeController(EmployeeService employeeService, EmployeeIngestionService employeeIngestionService, PayloadLogging payloadLogging) {
         this.employeeService = employeeService;
+        this.employeeIngestionService = employeeIngestionService;
+        this.payloadLogging = payloadLogging;
     }
 
     @PostMapping("/addEmployee") //http://localhost:8080/api/employees/addEmployee
     public ResponseEntity<EmployeeResponseDto> addEmployee(@Valid @RequestBody EmployeeRequestDto employeeRequestDto){
-        logger.info("addEmployee, employeeRequestDto is {}", employeeRequestDto);
+        logger.info("addEmployee, employeeRequestDto is {}", payloadLogging.of("addEmployee", employeeRequestDto));
 
         EmployeeResponseDto added = employeeService.addEmployee(employeeRequestDto);
 
@@ -41,31 +66,78 @@ public class EmployeeController {
                 .buildAndExpand(added.getId())
                 .toUri();
 
-        logger.info("addEmployee, employee added is {}", added);
+        logger.info("addEmployee, employee added is {}", payloadLogging.of("addEmployee", added));
 
         //return ResponseEntity.status(HttpStatus.CREATED).body(added);
-        return ResponseEntity.created(location).body(added); // 201 created
+        return ResponseEntity.created(location).eTag(EmployeeETags.of(added)).body(added); // 201 created
     }
 
     @PostMapping("/addEmployees") //http://localhost:8080/api/employees/addEmployees
     public ResponseEntity<List<EmployeeResponseDto>> addEmployees (@RequestBody List<EmployeeRequestDto> employeeRequestDtoList){
-        logger.info("addEmployees, employeeRequestDtoList is {}", employeeRequestDtoList);
+        logger.info("addEmployees, employeeRequestDtoList is {}", payloadLogging.of("addEmployees", employeeRequestDtoList));
         List<EmployeeResponseDto> employeesAdded = employeeService.addEmployees(employeeRequestDtoList);
 
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest().build().toUri();
 
-        logger.info("addEmployees, employeesAdded is {}", employeesAdded);
+        logger.info("addEmployees, employeesAdded is {}", payloadLogging.of("addEmployees", employeesAdded));
 
         //return ResponseEntity.status(HttpStatus.CREATED).body(employeesAdded);
         return ResponseEntity.created(location).body(employeesAdded);
 
     }
 
+    //http://localhost:8080/api/employees/importEmployees
+    //Content-Type application/x-ndjson (one employee per line) or application/json (array of employees)
+    //Body is parsed as a stream and persisted in chunks, response is a summary instead of the created rows
+    @PostMapping(value = "/importEmployees", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ImportSummaryDto> importEmployees(HttpServletRequest request) throws IOException {
+        boolean ndjson = request.getContentType().startsWith("application/x-ndjson");
+        logger.info("importEmployees, contentType is {}, contentLength is {}", request.getContentType(), request.getContentLengthLong());
+
+        ImportSummaryDto importSummaryDto = employeeService.importEmployees(request.getInputStream(), ndjson);
+
+        logger.info("importEmployees, imported {} of {} records", importSummaryDto.imported(), importSummaryDto.received());
+        return ResponseEntity.ok(importSummaryDto);
+    }
+
+    //http://localhost:8080/api/employees/ingestionJobs
+    //Same bodies as importEmployees, but returns 202 with the job at once and the records are committed in chunks by a
+    //background worker. 503 + Retry-After while the ingestion queue is full
+    @PostMapping(value = "/ingestionJobs", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<IngestionJobDto> submitIngestionJob(HttpServletRequest request) throws IOException {
+        boolean ndjson = request.getContentType().startsWith("application/x-ndjson");
+        logger.info("submitIngestionJob, contentType is {}, contentLength is {}", request.getContentType(), request.getContentLengthLong());
+
+        IngestionJobDto ingestionJobDto = employeeIngestionService.submit(request.getInputStream(), ndjson);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest().path("/{jobId}").buildAndExpand(ingestionJobDto.jobId()).toUri();
+        return ResponseEntity.accepted().location(location).body(ingestionJobDto);
+    }
+
+    //http://localhost:8080/api/employees/ingestionJobs/{jobId}
+    //Progress, throughput and rejected records of a job, poll until status is COMPLETED or FAILED
+    @GetMapping("/ingestionJobs/{jobId}")
+    public IngestionJobDto getIngestionJob(@PathVariable String jobId){
+        return employeeIngestionService.getJob(jobId);
+    }
+
+    //GET endpoints returning employees send an ETag (EmployeeETags) - a request with a matching If-None-Match gets
+    //304 Not Modified and no body, the response is not serialized at all
     @GetMapping("/{id}") //http://localhost:8080/api/employees/{id}
-    EmployeeResponseDto getEmployeeById(@PathVariable Long id){
+    ResponseEntity<EmployeeResponseDto> getEmployeeById(@PathVariable Long id){
         logger.info("getEmployeeById, id is {}", id);
-        return employeeService.getEmployeeById(id);
+        EmployeeResponseDto employee = employeeService.getEmployeeById(id);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(employee)).body(employee);
+    }
+
+    //http://localhost:8080/api/employees/getEmployeesByIds with body [1, 2, 3]
+    //One round trip for many ids - found employees in request order, unknown ids listed in missingIds
+    @PostMapping("/getEmployeesByIds")
+    public ResponseEntity<MultiGetResponseDto> getEmployeesByIds(@RequestBody List<Long> ids){
+        logger.info("getEmployeesByIds, {} ids", ids.size());
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(ids));
     }
 
     @GetMapping //http://localhost:8080/api/employees
@@ -73,9 +145,56 @@ public class EmployeeController {
         return employeeService.getAllEmployees();
     }
 
+    //http://localhost:8080/api/employees/exportEmployees?format=csv&gzip=true
+    //Streams all employees as NDJSON (default) or CSV, rows are written as they are read so memory stays flat.
+    //gzip=true sends a .gz file (application/gzip, no Content-Encoding) - clients save it compressed, nothing unpacks it
+    @GetMapping("/exportEmployees")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(name="format", defaultValue = "ndjson") String exportFormat,
+                                                                 @RequestParam(name="gzip", defaultValue = "false") boolean gzip){
+        ExportFormat format = ExportFormat.from(exportFormat);
+        logger.info("exportEmployees, format is {}, gzip is {}", format, gzip);
+
+        StreamingResponseBody body = outputStream -> {
+            if(gzip){
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                employeeService.exportEmployees(gzipOutputStream, format);
+                gzipOutputStream.finish();
+            }else{
+                employeeService.exportEmployees(outputStream, format);
+            }
+        };
+
+        String fileName = "employees." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/searchEmployeeById") //http://localhost:8080/api/employees/searchEmployeeById?id={id}
-    EmployeeResponseDto searchEmployeeById(@Valid @RequestParam("id") Long id){
-        return employeeService.searchEmployeeById(id);
+    ResponseEntity<EmployeeResponseDto> searchEmployeeById(@Valid @RequestParam("id") Long id){
+        EmployeeResponseDto employee = employeeService.searchEmployeeById(id);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(employee)).body(employee);
+    }
+
+    //http://localhost:8080/api/employees/salaryDistribution?department=Cricket&minSalary=100000&maxSalary=900000&percentiles=50,90,99
+    //Salary count/sum/min/max/average/percentiles from the in-memory snapshot, every filter is optional
+    @GetMapping("/salaryDistribution")
+    public SalaryDistributionDto getSalaryDistribution(@RequestParam(name="department", required = false) String department,
+                                                       @RequestParam(name="minSalary", required = false) Integer minSalary,
+                                                       @RequestParam(name="maxSalary", required = false) Integer maxSalary,
+                                                       @RequestParam(name="percentiles", defaultValue = "50,90,99") List<Double> percentiles){
+        logger.info("getSalaryDistribution, department is {}, minSalary is {}, maxSalary is {}, percentiles are {}", department, minSalary, maxSalary, percentiles);
+        return employeeService.getSalaryDistribution(department, minSalary, maxSalary, percentiles);
+    }
+
+    //http://localhost:8080/api/employees/departmentStats
+    //Headcount and total/average/min/max salary per department, read from the department_stats summary table
+    @GetMapping("/departmentStats")
+    public List<DepartmentStatsDto> getDepartmentStats(){
+        List<DepartmentStatsDto> departmentStats = employeeService.getDepartmentStats();
+        logger.info("getDepartmentStats, {} departments", departmentStats.size());
+        return departmentStats;
     }
 
     //http://localhost:8080/api/employees/searchEmployees?name={name}
@@ -90,34 +209,52 @@ public class EmployeeController {
         logger.info("searchEmployees, name is {}, department is {}, minSalary is {}", employeeName, department, minSalary);
         List<EmployeeResponseDto> resultList = employeeService.searchEmployees(employeeName, department, minSalary);
 
-        logger.info("searchEmployees, resultList is {}", resultList);
-        return ResponseEntity.ok(resultList);
+        logger.info("searchEmployees, resultList is {}", payloadLogging.of("searchEmployees", resultList));
+        return ResponseEntity.ok().eTag(EmployeeETags.of(resultList)).body(resultList);
 
     }
 
 
+    //If-Match with the ETag of a GET protects against lost updates - 412 Precondition Failed when the employee changed since
     @PutMapping("/updateEmployeeById/{id}") //http://localhost:8080/api/employees/updateEmployeeById/10
-    public ResponseEntity<EmployeeResponseDto> updateEmployeeById(@Valid @RequestBody EmployeeRequestDto employeeRequestDto, @PathVariable Long id){
-        logger.info("updateEmployeeById, employeeRequestDto is {} and id is {}", employeeRequestDto, id);
-        EmployeeResponseDto updated = employeeService.updateEmployeeById(employeeRequestDto, id);
-        logger.info("updateEmployeeById, updated is {}", updated);
+    public ResponseEntity<EmployeeResponseDto> updateEmployeeById(@Valid @RequestBody EmployeeRequestDto employeeRequestDto, @PathVariable Long id,
+                                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        logger.info("updateEmployeeById, employeeRequestDto is {} and id is {}", payloadLogging.of("updateEmployeeById", employeeRequestDto), id);
+        EmployeeResponseDto updated = ifMatch == null
+                ? employeeService.updateEmployeeById(employeeRequestDto, id)
+                : employeeService.updateEmployeeById(employeeRequestDto, id, EmployeeETags.expectedVersion(ifMatch, id));
+        logger.info("updateEmployeeById, updated is {}", payloadLogging.of("updateEmployeeById", updated));
         //return ResponseEntity.status(HttpStatus.OK).body(updated);
-        return ResponseEntity.ok(updated);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(updated)).body(updated);
     }
 
+    //Body is the list of updated employees as before, the count goes in the X-Updated-Count header.
+    //returnRows=false skips reading the rows back - 204 No Content with the header only
     @PutMapping("/updateEmployeeByName/{name}") //http://localhost:8080/api/employees/updateEmployeeByName/Sachin
-    public ResponseEntity<List<EmployeeResponseDto>> updateEmployeeByName(@Valid @RequestBody EmployeeRequestDto employeeRequestDto, @PathVariable ("name") String name){
-        logger.info("updateEmployeeByName, employeeRequestDto is {} and name is {}", employeeRequestDto, name);
-        List<EmployeeResponseDto> updatedList = employeeService.updateEmployeeByName(employeeRequestDto, name);
-
-        if(updatedList==null || updatedList.isEmpty()){
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<List<EmployeeResponseDto>> updateEmployeeByName(@Valid @RequestBody EmployeeRequestDto employeeRequestDto, @PathVariable ("name") String name,
+                                                                          @RequestParam(name="returnRows", defaultValue = "true") boolean returnRows){
+        logger.info("updateEmployeeByName, employeeRequestDto is {} and name is {}", payloadLogging.of("updateEmployeeByName", employeeRequestDto), name);
+        BulkUpdateResponseDto updated = employeeService.updateEmployeeByName(employeeRequestDto, name, returnRows);
+
+        logger.info("updateEmployeeByName, updatedCount is {}", updated.updatedCount());
+        if(!returnRows){
+            return ResponseEntity.noContent().header(UPDATED_COUNT_HEADER, String.valueOf(updated.updatedCount())).build();
         }
-        logger.info("updateEmployeeByName, updatedList is {}", updatedList);
-        return ResponseEntity.ok(updatedList);
+        return ResponseEntity.ok().header(UPDATED_COUNT_HEADER, String.valueOf(updated.updatedCount())).body(updated.employees());
 
     }
 
+    //http://localhost:8080/api/employees/raiseSalary?department=Cricket&percent=10
+    //http://localhost:8080/api/employees/raiseSalary?department=Cricket&minSalary=500000&amount=25000
+    @PutMapping("/raiseSalary")
+    public ResponseEntity<BulkUpdateResponseDto> raiseSalary(@RequestParam(name="name", required = false) String employeeName,
+                                                             @RequestParam(name="department", required = false) String department,
+                                                             @RequestParam(name="minSalary", required = false) Integer minSalary,
+                                                             @RequestParam(name="percent", defaultValue = "0") int percent,
+                                                             @RequestParam(name="amount", defaultValue = "0") int amount){
+        return ResponseEntity.ok(employeeService.raiseSalary(employeeName, department, minSalary, percent, amount));
+    }
+
     @DeleteMapping("/deleteEmployeeById/{id}") //http://localhost:8080/api/employees/deleteEmployeeById/4
     public ResponseEntity<HttpStatus> deleteEmployeeById(@PathVariable("id") Long id){
         employeeService.deleteEmployeeById(id);
@@ -125,32 +262,64 @@ public class EmployeeController {
         return ResponseEntity.noContent().build(); //204 - No content
     }
 
+    @PostMapping("/deleteEmployees") //http://localhost:8080/api/employees/deleteEmployees with body [1, 2, 3]
+    public ResponseEntity<BulkDeleteResponseDto> deleteEmployees(@RequestBody List<Long> ids){
+        logger.info("deleteEmployees, {} ids", ids.size());
+        return ResponseEntity.ok(employeeService.deleteEmployees(ids));
+    }
+
+    @DeleteMapping("/deleteEmployees") //http://localhost:8080/api/employees/deleteEmployees?department={department}&minSalary={minSalary}
+    public ResponseEntity<BulkDeleteResponseDto> deleteEmployees(@RequestParam(name="name", required = false) String employeeName,
+                                                                 @RequestParam(name="department", required = false) String department,
+                                                                 @RequestParam(name="minSalary", required = false) Integer minSalary){
+        return ResponseEntity.ok(employeeService.deleteEmployees(employeeName, department, minSalary));
+    }
+
 
     @GetMapping("/getAllEmployeesWithPagination")
-    public Page<EmployeeResponseDto> getAllEmployeesWithPagination(
+    public ResponseEntity<Page<EmployeeResponseDto>> getAllEmployeesWithPagination(
             @PageableDefault(page = 0, size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable){
         logger.info("getAllEmployeesWithPagination, pageable is {}", pageable);
-        return employeeService.getAllEmployeesWithPagination(pageable);
+        Page<EmployeeResponseDto> page = employeeService.getAllEmployeesWithPagination(pageable);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(page)).body(page);
     }
 
     @GetMapping("/searchEmployeesWithPagination")
-    public Page<EmployeeResponseDto> searchEmployeesWithPagination(@RequestParam(name="name", required = false) String employeeName,
+    public ResponseEntity<Page<EmployeeResponseDto>> searchEmployeesWithPagination(@RequestParam(name="name", required = false) String employeeName,
                                                                    @RequestParam(name="department", required=false) String department,
                                                                    @RequestParam(name="minSalary", required=false) Integer minSalary,
                                                                    Pageable pageable){
 
 
-        return employeeService.searchEmployeesWithPagination(employeeName, department, minSalary, pageable);
+        Page<EmployeeResponseDto> page = employeeService.searchEmployeesWithPagination(employeeName, department, minSalary, pageable);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(page)).body(page);
     }
 
     @GetMapping("/searchEmployeesWithPagination1")
-    public Page<EmployeeResponseDto> searchEmployeesWithPagination1(@RequestParam(name="name", required = false) String employeeName,
+    public ResponseEntity<Page<EmployeeResponseDto>> searchEmployeesWithPagination1(@RequestParam(name="name", required = false) String employeeName,
                                                                    @RequestParam(name="department", required=false) String department,
                                                                    @RequestParam(name="minSalary", required=false) Integer minSalary,
                                                                    Pageable pageable){
 
 
-        return employeeService.searchEmployeesWithPagination1(employeeName, department, minSalary, pageable);
+        Page<EmployeeResponseDto> page = employeeService.searchEmployeesWithPagination1(employeeName, department, minSalary, pageable);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(page)).body(page);
+    }
+
+    //http://localhost:8080/api/employees/searchEmployeesWithCursor?department=Cricket&sort=salary&size=10
+    //http://localhost:8080/api/employees/searchEmployeesWithCursor?department=Cricket&sort=salary&size=10&after={nextCursor}
+    @GetMapping("/searchEmployeesWithCursor")
+    public ResponseEntity<CursorPageDto<EmployeeResponseDto>> searchEmployeesWithCursor(@RequestParam(name="name", required = false) String employeeName,
+                                                                        @RequestParam(name="department", required=false) String department,
+                                                                        @RequestParam(name="minSalary", required=false) Integer minSalary,
+                                                                        @RequestParam(name="sort", defaultValue = "id") String sortBy,
+                                                                        @RequestParam(name="direction", defaultValue = "asc") String direction,
+                                                                        @RequestParam(name="after", required = false) String after,
+                                                                        @RequestParam(name="size", defaultValue = "10") int size){
+        logger.info("searchEmployeesWithCursor, sort is {} {}, after is {}, size is {}", sortBy, direction, after, size);
+        CursorPageDto<EmployeeResponseDto> page = employeeService.searchEmployeesWithCursor(employeeName, department, minSalary,
+                sortBy, "desc".equalsIgnoreCase(direction), after, size);
+        return ResponseEntity.ok().eTag(EmployeeETags.of(page)).body(page);
     }
 
 }
@@ -0,0 +1,82 @@
+package com.example.employeeManagementSystem.controller;
+
+import com.example.employeeManagementSystem.exception.PreconditionFailedException;
+import com.example.employeeManagementSystem.model.dto.CursorPageDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+//ETags of employee responses, computed from ids and versions only - no body is serialized to get them.
+//Returned as the ETag header of a GET, Spring answers a matching If-None-Match with 304 before the body is written.
+//  - one employee : strong "<id>-<version>", also accepted by If-Match on updateEmployeeById
+//  - lists, pages and cursor pages : weak W/"<64-bit hash>" of the (id, version) pairs in response order, pages also
+//    hash their number, size and total (cursor pages: size and next cursor), every other field follows from these.
+//    Weak because the bytes differ per format and Content-Encoding (Tomcat does not compress a response with a strong
+//    ETag), If-None-Match compares weakly anyway
+final class EmployeeETags {
+
+    private EmployeeETags(){
+    }
+
+    static String of(EmployeeResponseDto employee){
+        return "\"" + employee.getId() + "-" + employee.getVersion() + "\"";
+    }
+
+    static String of(List<EmployeeResponseDto> employees){
+        return weak(hash(0L, employees));
+    }
+
+    static String of(Page<EmployeeResponseDto> page){
+        long hash = hash(0L, page.getContent());
+        hash = mix(hash, page.getNumber());
+        hash = mix(hash, page.getSize());
+        hash = mix(hash, page.getTotalElements());
+        return weak(hash);
+    }
+
+    //nextCursor tells whether more rows follow, which the content alone does not
+    static String of(CursorPageDto<EmployeeResponseDto> page){
+        long hash = hash(0L, page.content());
+        hash = mix(hash, page.size());
+        hash = mix(hash, page.nextCursor() == null ? 0L : page.nextCursor().hashCode());
+        return weak(hash);
+    }
+
+    //Version expected by an If-Match header, null for "*" (any current version). Only a single ETag of this employee
+    //is accepted - anything else can not match and fails the precondition
+    static Long expectedVersion(String ifMatch, Long id){
+        String value = ifMatch.trim();
+        if(value.equals("*")){
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        if(!value.startsWith(prefix) || !value.endsWith("\"")){
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match employee " + id);
+        }
+        try{
+            return Long.valueOf(value.substring(prefix.length(), value.length() - 1));
+        }catch (NumberFormatException e){
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match employee " + id);
+        }
+    }
+
+    private static long hash(long hash, List<EmployeeResponseDto> employees){
+        hash = mix(hash, employees.size());
+        for(EmployeeResponseDto employee : employees){
+            hash = mix(hash, employee.getId() == null ? -1L : employee.getId());
+            hash = mix(hash, employee.getVersion() == null ? -1L : employee.getVersion());
+        }
+        return hash;
+    }
+
+    //Multiply-rotate mixing step (constants of SplitMix64), order sensitive
+    private static long mix(long hash, long value){
+        hash = (hash ^ value) * 0xBF58476D1CE4E5B9L;
+        return Long.rotateLeft(hash, 31) * 0x94D049BB133111EBL;
+    }
+
+    private static String weak(long hash){
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.employeeManagementSystem.exception;
+
+public class BadRequestException extends RuntimeException{
+
+
+    public BadRequestException(String message){
+        super(message);
+    }
+
+}
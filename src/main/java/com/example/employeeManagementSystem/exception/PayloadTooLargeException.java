@@ -0,0 +1,10 @@
+package com.example.employeeManagementSystem.exception;
+
+public class PayloadTooLargeException extends RuntimeException{
+
+
+    public PayloadTooLargeException(String message){
+        super(message);
+    }
+
+}
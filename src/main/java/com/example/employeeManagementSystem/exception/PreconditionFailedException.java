@@ -0,0 +1,11 @@
+package com.example.employeeManagementSystem.exception;
+
+//If-Match does not name the current version of the resource - the client has to re-read it before writing
+public class PreconditionFailedException extends RuntimeException{
+
+
+    public PreconditionFailedException(String message){
+        super(message);
+    }
+
+}
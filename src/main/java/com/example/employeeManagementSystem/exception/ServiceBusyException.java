@@ -0,0 +1,10 @@
+package com.example.employeeManagementSystem.exception;
+
+public class ServiceBusyException extends RuntimeException{
+
+
+    public ServiceBusyException(String message){
+        super(message);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.employeeManagementSystem.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Size-capped, sampled rendering of request/response payloads for log statements :
+//  logger.info("addEmployees, employeeRequestDtoList is {}", payloadLogging.of("addEmployees", employeeRequestDtoList));
+//of() only takes the sampling decision, the payload is rendered when the logger formats the message (nothing if the level
+//is off) - on the calling thread, also behind the AsyncAppender, which formats before it enqueues.
+//Sampled payloads show at most max-items elements and max-chars characters, payloads that were not sampled are
+//summarized as their size, e.g. "[250 items]"
+@Component
+public class PayloadLogging {
+
+    private final int maxItems;
+    private final int maxChars;
+    private final double sampleRate;
+    private final Map<String, Double> endpointSampleRates;
+
+    public PayloadLogging(@Value("${employee.logging.payload.max-items:3}") int maxItems,
+                          @Value("${employee.logging.payload.max-chars:512}") int maxChars,
+                          @Value("${employee.logging.payload.sample-rate:1.0}") double sampleRate,
+                          @Value("${employee.logging.payload.endpoint-sample-rates:}") String endpointSampleRates) {
+        this.maxItems = maxItems;
+        this.maxChars = maxChars;
+        this.sampleRate = sampleRate;
+        this.endpointSampleRates = sampleRates(endpointSampleRates);
+    }
+
+    public Object of(String endpoint, Object payload){
+        double rate = endpointSampleRates.getOrDefault(endpoint, sampleRate);
+        boolean sampled = rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+        return new Payload(payload, sampled);
+    }
+
+    //"searchEmployees:0.01,addEmployees:0" -> {searchEmployees=0.01, addEmployees=0.0}
+    private static Map<String, Double> sampleRates(String rates){
+        Map<String, Double> sampleRates = new LinkedHashMap<>();
+        for(String part : rates.split(",")){
+            if(part.isBlank()){
+                continue;
+            }
+            String[] endpointAndRate = part.trim().split(":");
+            if(endpointAndRate.length != 2){
+                throw new IllegalArgumentException("Invalid endpoint sample rate " + part + ", expected endpoint:rate");
+            }
+            sampleRates.put(endpointAndRate[0].trim(), Double.parseDouble(endpointAndRate[1].trim()));
+        }
+        return sampleRates;
+    }
+
+    //Rendered by toString(), i.e. by the logger and only once the message is actually written
+    private final class Payload {
+        private final Object payload;
+        private final boolean sampled;
+
+        Payload(Object payload, boolean sampled){
+            this.payload = payload;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public String toString(){
+            if(payload instanceof Collection<?> collection){
+                if(!sampled || maxItems <= 0){
+                    return "[" + collection.size() + " items]";
+                }
+                StringBuilder rendered = new StringBuilder();
+                Iterator<?> iterator = collection.iterator();
+                int shown = 0;
+                while(iterator.hasNext() && shown < maxItems && rendered.length() < maxChars){
+                    rendered.append(shown > 0 ? ", " : "").append(iterator.next());
+                    shown++;
+                }
+                String items = truncate(rendered);
+                return shown < collection.size()
+                        ? "[" + items + ", ... (" + (collection.size() - shown) + " more)]"
+                        : "[" + items + "]";
+            }
+            if(payload == null){
+                return "null";
+            }
+            if(!sampled){
+                return "<" + payload.getClass().getSimpleName() + ">";
+            }
+            return truncate(new StringBuilder(String.valueOf(payload)));
+        }
+
+        private String truncate(StringBuilder rendered){
+            if(rendered.length() <= maxChars){
+                return rendered.toString();
+            }
+            return rendered.substring(0, maxChars) + "...(" + rendered.length() + " chars)";
+        }
+    }
+}
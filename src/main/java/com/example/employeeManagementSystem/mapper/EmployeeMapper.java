@@ -0,0 +1,26 @@
+package com.example.employeeManagementSystem.mapper;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+
+//MapStruct generates EmployeeMapperImpl at compile time - plain getter/setter calls, no reflection at runtime
+//Replaces ModelMapper and the hand-written map methods of EmployeeServiceImpl
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface EmployeeMapper {
+
+    EmployeeResponseDto toResponseDto(Employee employee);
+
+    EmployeeRequestDto toRequestDto(Employee employee);
+
+    @Mapping(target = "id", ignore = true)
+    Employee toEntity(EmployeeRequestDto employeeRequestDto);
+
+    //Copies every field of the request onto an existing (managed) entity, id is kept
+    @Mapping(target = "id", ignore = true)
+    void updateEntity(EmployeeRequestDto employeeRequestDto, @MappingTarget Employee employee);
+}
@@ -0,0 +1,162 @@
+package com.example.employeeManagementSystem.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+//Per request SQL cost of the employee API, tagged like http.server.requests (method, uri) :
+//employee.request.statements - JDBC statements executed (a batch counts once)
+//employee.request.entities   - entities loaded into the persistence context
+//employee.request.rows       - rows read from result sets
+//employee.request.payload    - request body bytes read (addEmployees, importEmployees, ingestionJobs...) - counted on the
+//                              input stream, so chunked uploads without a Content-Length are measured as well
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    //Constructor Injection
+    public RequestMetricsFilter(MeterRegistry meterRegistry){
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestStatistics statistics = RequestStatistics.begin();
+        CountingRequest countingRequest = new CountingRequest(request);
+        try {
+            filterChain.doFilter(countingRequest, response);
+        } finally {
+            RequestStatistics.end();
+            record(countingRequest, statistics);
+        }
+    }
+
+    private void record(CountingRequest request, RequestStatistics statistics){
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        summary("employee.request.statements", null, uri, method).record(statistics.getStatements());
+        summary("employee.request.entities", null, uri, method).record(statistics.getEntitiesLoaded());
+        summary("employee.request.rows", null, uri, method).record(statistics.getRows());
+
+        if(request.stream != null){
+            summary("employee.request.payload", "bytes", uri, method).record(request.stream.bytesRead);
+        }
+    }
+
+    //baseUnit becomes a suffix of the Prometheus name, so counts go without one
+    private DistributionSummary summary(String name, String baseUnit, String uri, String method){
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    //Hands out the body through a stream counting what the application actually reads. getReader is served from the
+    //same stream, Tomcat's own reader would bypass it
+    private static final class CountingRequest extends HttpServletRequestWrapper {
+
+        private CountingInputStream stream;
+        private BufferedReader reader;
+
+        CountingRequest(HttpServletRequest request){
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if(stream == null){
+                stream = new CountingInputStream(super.getInputStream());
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if(reader == null){
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1; //servlet default
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+    }
+
+    private static final class CountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private long bytesRead;
+
+        CountingInputStream(ServletInputStream delegate){
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if(b >= 0){
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if(count > 0){
+                bytesRead += count;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.employeeManagementSystem.metrics;
+
+//Database work done by the current request thread, fed by RequestStatisticsDataSource (statements, rows) and
+//RequestStatisticsLoadListener (entities), published by RequestMetricsFilter.
+//Nothing is counted on threads without an open request (startup, schedulers, async export writers)
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+    private long rows;
+
+    private RequestStatistics(){
+    }
+
+    static RequestStatistics begin(){
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end(){
+        CURRENT.remove();
+    }
+
+    static boolean active(){
+        return CURRENT.get() != null;
+    }
+
+    static void statementExecuted(){
+        RequestStatistics statistics = CURRENT.get();
+        if(statistics != null){
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded(){
+        RequestStatistics statistics = CURRENT.get();
+        if(statistics != null){
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    static void rowRead(){
+        RequestStatistics statistics = CURRENT.get();
+        if(statistics != null){
+            statistics.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
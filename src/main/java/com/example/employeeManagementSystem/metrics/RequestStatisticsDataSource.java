@@ -0,0 +1,31 @@
+package com.example.employeeManagementSystem.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+
+//Wraps the DataSource (datasource-proxy) to count, for the current request, every JDBC statement executed - a JDBC
+//batch counts once - and every row read from a ResultSet. Sees native queries as well as Hibernate's
+@Component
+public class RequestStatisticsDataSource implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof DataSource dataSource){
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .afterQuery((executionInfo, queryInfoList) -> RequestStatistics.statementExecuted())
+                    .proxyResultSet()
+                    .afterMethod(context -> {
+                        if(RequestStatistics.active() && context.getTarget() instanceof ResultSet
+                                && "next".equals(context.getMethod().getName()) && Boolean.TRUE.equals(context.getResult())){
+                            RequestStatistics.rowRead();
+                        }
+                    })
+                    .build();
+        }
+        return bean;
+    }
+}
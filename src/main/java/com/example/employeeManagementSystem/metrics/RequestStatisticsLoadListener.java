@@ -0,0 +1,27 @@
+package com.example.employeeManagementSystem.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.stereotype.Component;
+
+//Counts every entity Hibernate loads into a persistence context for the current request - registered as a PostLoad
+//listener of the session factory, so no Hibernate statistics are needed
+@Component
+public class RequestStatisticsLoadListener implements PostLoadEventListener {
+
+    //Constructor Injection
+    public RequestStatisticsLoadListener(EntityManagerFactory entityManagerFactory){
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics.entityLoaded();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.employeeManagementSystem.model.dto;
+
+//Result of a bulk delete - how many rows were actually removed
+public record BulkDeleteResponseDto(
+        int deletedCount
+){
+}
@@ -0,0 +1,13 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+//Result of a set-based update - affected row count, plus the updated rows when they were asked for
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkUpdateResponseDto(
+        int updatedCount,
+        List<EmployeeResponseDto> employees
+){
+}
@@ -0,0 +1,11 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.util.List;
+
+//One page of a keyset (seek) pagination, nextCursor is null on the last page
+public record CursorPageDto<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+){
+}
@@ -0,0 +1,12 @@
+package com.example.employeeManagementSystem.model.dto;
+
+//Salary statistics of one department - averageSalary/minSalary/maxSalary are null when nobody in it has a salary
+public record DepartmentStatsDto(
+        String department,
+        long headcount,
+        long totalSalary,
+        Double averageSalary,
+        Integer minSalary,
+        Integer maxSalary
+){
+}
@@ -1,5 +1,7 @@
 package com.example.employeeManagementSystem.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class EmployeeResponseDto
 {
     private Long id;
@@ -7,9 +9,10 @@ public class EmployeeResponseDto
     private Integer salary;
     private String department;
     private String email;
+    private Long version;
 
 
-    // Required: No-arg constructor for ModelMapper
+    // Required: No-arg constructor for Jackson and the generated EmployeeMapper
     public EmployeeResponseDto() {
     }
 
@@ -22,6 +25,12 @@ public class EmployeeResponseDto
         this.email = email;
     }
 
+    //Projections (select new ...) - version is the source of the ETag
+    public EmployeeResponseDto(Long id, String name, Integer salary, String department, String email, Long version) {
+        this(id, name, salary, department, email);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -62,4 +71,14 @@ public class EmployeeResponseDto
         this.email = email;
     }
 
+    //Only carried in the ETag header, not part of the response body
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
@@ -0,0 +1,24 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.util.Locale;
+
+//Output formats of exportEmployees
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    //Case-insensitive lookup, so ?format=csv works
+    public static ExportFormat from(String format) {
+        return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.util.List;
+
+//Compact result of a bulk import - counts plus the positions of the first rejected records (line number for NDJSON,
+//element number for a JSON array). failed counts every rejected record, failedLines lists at most the first 100
+public record ImportSummaryDto(
+        int received,
+        int imported,
+        int failed,
+        List<Long> failedLines
+){
+}
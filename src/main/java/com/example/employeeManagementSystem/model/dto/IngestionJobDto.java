@@ -0,0 +1,21 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+//Progress of an ingestion job. Counts are updated per record / committed chunk while the job runs,
+//failures lists at most employee.ingestion.max-failures-reported records (failed has the full count)
+public record IngestionJobDto(
+        String jobId,
+        IngestionStatus status,
+        int received,
+        int imported,
+        int failed,
+        double recordsPerSecond,
+        LocalDateTime submittedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error,
+        List<RecordFailureDto> failures
+){
+}
@@ -0,0 +1,9 @@
+package com.example.employeeManagementSystem.model.dto;
+
+//Lifecycle of an ingestion job - QUEUED until a worker picks it up, FAILED if it could not read its payload or a chunk could not be committed
+public enum IngestionStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.util.List;
+
+//Result of a multi-get - found employees in the order their ids were asked for, plus the ids that do not exist
+public record MultiGetResponseDto(
+        List<EmployeeResponseDto> employees,
+        List<Long> missingIds
+){
+}
@@ -0,0 +1,8 @@
+package com.example.employeeManagementSystem.model.dto;
+
+//A rejected record of an ingestion job - its line in the payload (element number in a JSON array) and why it was rejected
+public record RecordFailureDto(
+        long line,
+        String reason
+){
+}
@@ -0,0 +1,15 @@
+package com.example.employeeManagementSystem.model.dto;
+
+import java.util.Map;
+
+//Salary aggregates of the employees matching a department/salary range, min/max/average/percentiles are null when count is 0
+//percentiles by name, e.g. {"p50": 510000, "p99": 985000} (nearest rank)
+public record SalaryDistributionDto(
+        long count,
+        long sum,
+        Integer min,
+        Integer max,
+        Double average,
+        Map<String, Integer> percentiles
+){
+}
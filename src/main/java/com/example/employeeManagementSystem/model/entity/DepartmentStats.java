@@ -0,0 +1,73 @@
+package com.example.employeeManagementSystem.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+//Salary summary per department, one row per department. Written only by DepartmentStatsUpdater (set-based SQL in the
+//transaction of the employee write), so the entity has no setters
+@Entity
+@Table(name = "department_stats")
+public class DepartmentStats {
+
+    @Id
+    private String department;
+
+    @Column(nullable = false)
+    private long headcount;
+
+    //Employees with a salary - the divisor of the average, employees without salary only count in headcount
+    @Column(name = "salary_count", nullable = false)
+    private long salaryCount;
+
+    @Column(name = "total_salary", nullable = false)
+    private long totalSalary;
+
+    @Column(name = "min_salary")
+    private Integer minSalary;
+
+    @Column(name = "max_salary")
+    private Integer maxSalary;
+
+    // Explicit no-arg constructor (JPA requirement)
+    public DepartmentStats(){
+
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getHeadcount() {
+        return headcount;
+    }
+
+    public long getSalaryCount() {
+        return salaryCount;
+    }
+
+    public long getTotalSalary() {
+        return totalSalary;
+    }
+
+    public Integer getMinSalary() {
+        return minSalary;
+    }
+
+    public Integer getMaxSalary() {
+        return maxSalary;
+    }
+
+    @Override
+    public String toString() {
+        return "DepartmentStats{" +
+                "department='" + department + '\'' +
+                ", headcount=" + headcount +
+                ", salaryCount=" + salaryCount +
+                ", totalSalary=" + totalSalary +
+                ", minSalary=" + minSalary +
+                ", maxSalary=" + maxSalary +
+                '}';
+    }
+}
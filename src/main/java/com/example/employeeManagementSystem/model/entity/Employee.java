@@ -6,16 +6,31 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import org.springframework.boot.autoconfigure.web.WebProperties;
 
+import java.util.Locale;
+
 @Entity
-@Table(name="employees")
+@Table(name="employees", indexes = {
+        @Index(name = "idx_employees_name", columnList = "name"),
+        @Index(name = "idx_employees_department", columnList = "department"),
+        @Index(name = "idx_employees_salary", columnList = "salary, id"), //id as tie-breaker for keyset pagination
+        @Index(name = "idx_employees_name_lower", columnList = "name_lower, id"),
+        @Index(name = "idx_employees_department_lower", columnList = "department_lower")
+})
 public class Employee {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    //Sequence with pooled optimizer (allocationSize > 1), so Hibernate can batch inserts; IDENTITY disables JDBC batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private Long id;
 
 
     private String name;
 
+    //Lower-case copy of name, kept in sync by normalize(), so case-insensitive search does not need lower() per row
+    @Column(name = "name_lower")
+    private String nameLower;
+
 
     private Integer salary;
 
@@ -24,11 +39,27 @@ public class Employee {
 
     private String department;
 
+    //Lower-case copy of department, kept in sync by normalize(), so the department filter is case-insensitive on an index
+    @Column(name = "department_lower")
+    private String departmentLower;
+
+    //Optimistic lock - incremented by Hibernate on every flushed change (set-based updates bump it themselves),
+    //the controller derives the ETag of an employee from it
+    @Version
+    private Long version;
+
     // Explicit no-arg constructor (JPA requirement)
     public Employee(){
 
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalize(){
+        this.nameLower = name == null ? null : name.toLowerCase(Locale.ROOT);
+        this.departmentLower = department == null ? null : department.toLowerCase(Locale.ROOT);
+    }
+
     public Long getId() {
         return id;
     }
@@ -45,6 +76,10 @@ public class Employee {
         this.name = name;
     }
 
+    public String getNameLower() {
+        return nameLower;
+    }
+
     public Integer getSalary() {
         return salary;
     }
@@ -69,6 +104,14 @@ public class Employee {
         this.department = department;
     }
 
+    public String getDepartmentLower() {
+        return departmentLower;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Employee{" +
@@ -77,6 +120,7 @@ public class Employee {
                 ", salary=" + salary +
                 ", email='" + email + '\'' +
                 ", department='" + department + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,81 @@
+package com.example.employeeManagementSystem.repository;
+
+import com.example.employeeManagementSystem.model.entity.DepartmentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+//department_stats is maintained with set-based statements only (H2 SQL), each one a single row lock on the department,
+//so concurrent writers add up instead of overwriting each other's read-modify-write. Rows of new departments are
+//created on their own first (createEmpty), an insert inside the employee write could race with a concurrent one
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, String> {
+
+    //Departments whose employees were all removed keep a row with headcount 0 until the next recompute
+    List<DepartmentStats> findByHeadcountGreaterThanOrderByDepartment(long headcount);
+
+    //Adds the aggregate of newly written employees of one department, 0 when the department has no row yet.
+    //LEAST/GREATEST are NULL as soon as one side is, hence the coalesce - a department or delta without salaries keeps
+    //the other side's min/max
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "update department_stats s set headcount = s.headcount + :headcount, " +
+            "salary_count = s.salary_count + :salaryCount, total_salary = s.total_salary + :totalSalary, " +
+            "min_salary = coalesce(least(s.min_salary, cast(:minSalary as integer)), s.min_salary, cast(:minSalary as integer)), " +
+            "max_salary = coalesce(greatest(s.max_salary, cast(:maxSalary as integer)), s.max_salary, cast(:maxSalary as integer)) " +
+            "where s.department = :department")
+    int add(@Param("department") String department, @Param("headcount") long headcount, @Param("salaryCount") long salaryCount,
+            @Param("totalSalary") long totalSalary, @Param("minSalary") Integer minSalary, @Param("maxSalary") Integer maxSalary);
+
+    //Empty row of a new department, committed in a transaction of its own - two writers creating the same department
+    //collide here (unique key, DataIntegrityViolationException) instead of failing the employee write
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into department_stats (department, headcount, salary_count, total_salary) " +
+            "values (:department, 0, 0, 0)")
+    int createEmpty(@Param("department") String department);
+
+    //Takes one employee out of its department. min/max are only re-read from employees (department index) when the
+    //removed salary was the extreme one - the employee change has to be flushed before
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "update department_stats s set headcount = s.headcount - 1, " +
+            "salary_count = s.salary_count - case when cast(:salary as integer) is null then 0 else 1 end, " +
+            "total_salary = s.total_salary - coalesce(cast(:salary as integer), 0), " +
+            "min_salary = case when s.min_salary = cast(:salary as integer) " +
+            "then (select min(e.salary) from employees e where e.department = s.department) else s.min_salary end, " +
+            "max_salary = case when s.max_salary = cast(:salary as integer) " +
+            "then (select max(e.salary) from employees e where e.department = s.department) else s.max_salary end " +
+            "where s.department = :department")
+    int remove(@Param("department") String department, @Param("salary") Integer salary);
+
+    //Recompute of whole departments, after set-based writes that do not know the rows they changed
+    @Modifying(flushAutomatically = true)
+    @Query("delete from DepartmentStats s where s.department in :departments")
+    int deleteByDepartmentIn(@Param("departments") Collection<String> departments);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "insert into department_stats (department, headcount, salary_count, total_salary, min_salary, max_salary) " +
+            "select e.department, count(*), count(e.salary), coalesce(sum(e.salary), 0), min(e.salary), max(e.salary) " +
+            "from employees e where e.department in (:departments) group by e.department")
+    int insertFromEmployees(@Param("departments") Collection<String> departments);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "delete from department_stats s where lower(s.department) = :departmentLower")
+    int deleteByDepartmentLower(@Param("departmentLower") String departmentLower);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "insert into department_stats (department, headcount, salary_count, total_salary, min_salary, max_salary) " +
+            "select e.department, count(*), count(e.salary), coalesce(sum(e.salary), 0), min(e.salary), max(e.salary) " +
+            "from employees e where e.department_lower = :departmentLower group by e.department")
+    int insertFromEmployeesByDepartmentLower(@Param("departmentLower") String departmentLower);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "insert into department_stats (department, headcount, salary_count, total_salary, min_salary, max_salary) " +
+            "select e.department, count(*), count(e.salary), coalesce(sum(e.salary), 0), min(e.salary), max(e.salary) " +
+            "from employees e where e.department is not null group by e.department")
+    int insertAllFromEmployees();
+}
@@ -1,20 +1,103 @@
 package com.example.employeeManagementSystem.repository;
 
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
 import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.search.EmployeeName;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
     List<Employee> findByNameContaining(String name);
     List<Employee> findBySalaryGreaterThan(Integer salary);
     List<Employee> findByIdAndName(Long id, String name);
     List<Employee> findByName(String name);
 
     Page<Employee> findAll(Specification<Employee> spec, Pageable pageable);
-}
 
+    //Read-only projections - the result set is mapped straight into EmployeeResponseDto, no entity is hydrated
+    @Query("select new com.example.employeeManagementSystem.model.dto.EmployeeResponseDto(e.id, e.name, e.salary, e.department, e.email, e.version) " +
+            "from Employee e where e.id = :id")
+    Optional<EmployeeResponseDto> findDtoById(@Param("id") Long id);
+
+    //Multi-get - with hibernate.query.in_clause_parameter_padding the IN list is padded to the next power of two,
+    //so a handful of statement shapes serve every list size
+    @Query("select new com.example.employeeManagementSystem.model.dto.EmployeeResponseDto(e.id, e.name, e.salary, e.department, e.email, e.version) " +
+            "from Employee e where e.id in :ids")
+    List<EmployeeResponseDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.employeeManagementSystem.model.dto.EmployeeResponseDto(e.id, e.name, e.salary, e.department, e.email, e.version) " +
+            "from Employee e order by e.id")
+    List<EmployeeResponseDto> findAllDtos();
+
+    @Query(value = "select new com.example.employeeManagementSystem.model.dto.EmployeeResponseDto(e.id, e.name, e.salary, e.department, e.email, e.version) " +
+            "from Employee e",
+            countQuery = "select count(e) from Employee e")
+    Page<EmployeeResponseDto> findAllDtos(Pageable pageable);
+
+    //Department and salary of one employee, read before it is deleted (department_stats)
+    @Query("select new com.example.employeeManagementSystem.analytics.SalaryRow(e.id, e.salary, e.department) from Employee e where e.id = :id")
+    Optional<SalaryRow> findSalaryRowById(@Param("id") Long id);
+
+    //Departments a set-based write by ids can touch
+    @Query("select distinct e.department from Employee e where e.id in :ids")
+    List<String> findDepartmentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    //The employees updateEmployeeByName is about to change - ids for the update and the follow-up read, departments
+    //for department_stats
+    @Query("select new com.example.employeeManagementSystem.analytics.SalaryRow(e.id, e.salary, e.department) from Employee e " +
+            "where e.name = :name order by e.id")
+    List<SalaryRow> findSalaryRowsByName(@Param("name") String name);
+
+    //Set-based update of the given employees to the same values - one UPDATE statement, returns the affected row count
+    //Bypasses @PreUpdate and @Version, so name_lower/department_lower are passed in and the version is bumped here as well
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.name = :newName, e.nameLower = :newNameLower, e.salary = :salary, " +
+            "e.department = :department, e.departmentLower = :departmentLower, e.email = :email, e.version = e.version + 1 where e.id in :ids")
+    int updateByIdIn(@Param("ids") Collection<Long> ids, @Param("newName") String newName, @Param("newNameLower") String newNameLower,
+                     @Param("salary") Integer salary, @Param("department") String department, @Param("departmentLower") String departmentLower,
+                     @Param("email") String email);
+
+    //Single DELETE statements, no entity is loaded first - return the number of rows removed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    //Forward-only cursor for exports - rows are fetched from the driver in batches of 500, read-only so no dirty-checking snapshots
+    //Must be consumed inside a transaction and closed (try-with-resources)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAllBy();
+
+    //Source of SalarySnapshot - only the three columns it keeps, in id order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.employeeManagementSystem.analytics.SalaryRow(e.id, e.salary, e.department) from Employee e order by e.id")
+    Stream<SalaryRow> streamSalaryRows();
+
+    //Source of NameIndex - id and name only, in id order so the posting lists are built by appending
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.employeeManagementSystem.search.EmployeeName(e.id, e.name) from Employee e order by e.id")
+    Stream<EmployeeName> streamEmployeeNames();
+}
@@ -0,0 +1,30 @@
+package com.example.employeeManagementSystem.repository;
+
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+//Specification queries that select straight into EmployeeResponseDto (no managed entities, no dirty-checking snapshots)
+//and set-based updates/deletes driven by the same filters
+public interface EmployeeRepositoryCustom {
+    List<EmployeeResponseDto> findDtos(Specification<Employee> spec, Sort sort, int limit);
+    Page<EmployeeResponseDto> findDtoPage(Specification<Employee> spec, Pageable pageable);
+
+    //SELECT DISTINCT department FROM employees WHERE <spec> - the departments a set-based write with the same filters touches
+    List<String> findDepartments(Specification<Employee> spec);
+
+    //SELECT id, salary, department FROM employees WHERE <spec> ORDER BY id - the rows a filter-based delete is about to
+    //remove, deleted by id afterwards so department_stats and the in-memory indexes know them
+    List<SalaryRow> findSalaryRows(Specification<Employee> spec);
+
+    //UPDATE employees SET salary = salary * (100 + percent) / 100 + amount WHERE <spec> - one statement, no entity loaded
+    //Rows whose new salary would be <= 0 or above Integer.MAX_VALUE are not updated (nor counted)
+    int updateSalary(Specification<Employee> spec, int percent, int amount);
+
+}
@@ -0,0 +1,137 @@
+package com.example.employeeManagementSystem.repository;
+
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+//Picked up by Spring Data as the implementation of EmployeeRepositoryCustom (Impl suffix)
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EmployeeResponseDto> findDtos(Specification<Employee> spec, Sort sort, int limit) {
+        TypedQuery<EmployeeResponseDto> query = dtoQuery(spec, sort);
+        if(limit > 0){
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Page<EmployeeResponseDto> findDtoPage(Specification<Employee> spec, Pageable pageable) {
+        TypedQuery<EmployeeResponseDto> query = dtoQuery(spec, pageable.getSort());
+        if(pageable.isPaged()){
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        //count(*) only runs when the page is full or not the first one
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<String> findDepartments(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(root.get("department")).distinct(true);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if(predicate != null){
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<SalaryRow> findSalaryRows(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SalaryRow> query = cb.createQuery(SalaryRow.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(cb.construct(SalaryRow.class, root.get("id"), root.get("salary"), root.get("department")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if(predicate != null){
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int updateSalary(Specification<Employee> spec, int percent, int amount) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+
+        //Computed as BIGINT - salary * (100 + percent) overflows INTEGER from about 21M on
+        Path<Integer> salary = root.get("salary");
+        Expression<Long> raised = cb.sum(cb.quot(cb.prod(salary.as(Long.class), (long) (100 + percent)), 100L).as(Long.class), (long) amount);
+        update.set(salary, raised.as(Integer.class));
+        Path<Long> version = root.get("version"); //not versioned automatically, ETags of the raised rows must change
+        update.set(version, cb.sum(version, 1L));
+
+        //A bulk update skips bean validation (@Positive), so rows whose new salary would not be a positive INTEGER
+        //are left out instead
+        Predicate inRange = cb.between(raised, 1L, (long) Integer.MAX_VALUE);
+        //Specifications only use root and cb, there is no CriteriaQuery for an update
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, null, cb);
+        update.where(predicate == null ? inRange : cb.and(predicate, inRange));
+
+        entityManager.flush(); //pending changes first, the update goes straight to the database
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear(); //managed copies would be stale now
+        return updated;
+    }
+
+    private TypedQuery<EmployeeResponseDto> dtoQuery(Specification<Employee> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeResponseDto> query = cb.createQuery(EmployeeResponseDto.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        //select new EmployeeResponseDto(e.id, e.name, e.salary, e.department, e.email, e.version)
+        query.select(cb.construct(EmployeeResponseDto.class,
+                root.get("id"), root.get("name"), root.get("salary"), root.get("department"), root.get("email"), root.get("version")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if(predicate != null){
+            query.where(predicate);
+        }
+        if(sort != null && sort.isSorted()){
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if(predicate != null){
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
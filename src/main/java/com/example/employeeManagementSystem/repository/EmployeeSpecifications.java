@@ -0,0 +1,83 @@
+package com.example.employeeManagementSystem.repository;
+
+import com.example.employeeManagementSystem.model.entity.Employee;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+//Reusable search filters, so every search path builds the same WHERE clause and the database does the filtering
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications(){
+    }
+
+    //Matches against the indexed name_lower column instead of lower(name), the search term is lower-cased once here
+    public static Specification<Employee> nameContains(String name){
+        String pattern = "%" + name.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.like(root.get("nameLower"), pattern);
+    }
+
+    //Candidate ids from NameIndex, next to nameContains so only those rows are compared
+    public static Specification<Employee> idIn(Collection<Long> ids){
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    //Case-insensitive, as nameContains - compared with the indexed department_lower column
+    public static Specification<Employee> departmentEquals(String department){
+        String lower = department.toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(root.get("departmentLower"), lower);
+    }
+
+    public static Specification<Employee> salaryAtLeast(Integer minSalary){
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("salary"), minSalary);
+    }
+
+    //Null-safe equality, so a row can be matched on a field that was set to null
+    public static Specification<Employee> equalOrNull(String attribute, Object value){
+        return (root, query, cb) -> value == null ? cb.isNull(root.get(attribute)) : cb.equal(root.get(attribute), value);
+    }
+
+    //Keyset (seek) condition - rows strictly after (value, id) in the given sort order
+    //i.e. sortKey > value OR (sortKey = value AND id > lastId), served by the (sortKey, id) indexes
+    public static <T extends Comparable<? super T>> Specification<Employee> after(String attribute, T value, Long lastId, boolean descending){
+        return (root, query, cb) -> {
+            if("id".equals(attribute)){
+                return descending ? cb.lessThan(root.get("id"), lastId) : cb.greaterThan(root.get("id"), lastId);
+            }
+            Path<T> path = root.get(attribute);
+            Path<Long> id = root.get("id");
+            return cb.or(
+                    descending ? cb.lessThan(path, value) : cb.greaterThan(path, value),
+                    cb.and(cb.equal(path, value), descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId))
+            );
+        };
+    }
+
+    //Rows with a null sort key can not be positioned by a seek condition, so keyset pagination skips them
+    public static Specification<Employee> isNotNull(String attribute){
+        return (root, query, cb) -> cb.isNotNull(root.get(attribute));
+    }
+
+    //Combines the optional name/department/minSalary filters as AND conditions, blank values are ignored
+    public static Specification<Employee> matching(String name, String department, Integer minSalary){
+        List<Specification<Employee>> specs = new ArrayList<>();
+
+        if(name!=null && !name.isBlank()){
+            specs.add(nameContains(name));
+        }
+
+        if(department!=null && !department.isBlank()){
+            specs.add(departmentEquals(department));
+        }
+
+        if(minSalary != null){
+            specs.add(salaryAtLeast(minSalary));
+        }
+
+        return Specification.allOf(specs);
+    }
+}
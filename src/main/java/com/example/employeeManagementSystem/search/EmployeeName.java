@@ -0,0 +1,13 @@
+package com.example.employeeManagementSystem.search;
+
+import com.example.employeeManagementSystem.model.entity.Employee;
+
+//The columns of an employee kept by NameIndex
+public record EmployeeName(
+        Long id,
+        String name
+){
+    public static EmployeeName of(Employee employee){
+        return new EmployeeName(employee.getId(), employee.getName());
+    }
+}
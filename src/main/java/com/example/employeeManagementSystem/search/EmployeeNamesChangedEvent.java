@@ -0,0 +1,24 @@
+package com.example.employeeManagementSystem.search;
+
+import java.util.Collection;
+import java.util.List;
+
+//Published by the write paths of EmployeeServiceImpl/EmployeeBatchWriter inside their transaction, applied to NameIndex
+//after commit. A snapshot restore replaces every row and asks for a reload instead
+public record EmployeeNamesChangedEvent(
+        List<EmployeeName> upserted,
+        Collection<Long> deletedIds,
+        boolean reload
+){
+    public static EmployeeNamesChangedEvent upserted(List<EmployeeName> names){
+        return new EmployeeNamesChangedEvent(names, List.of(), false);
+    }
+
+    public static EmployeeNamesChangedEvent deleted(Collection<Long> ids){
+        return new EmployeeNamesChangedEvent(List.of(), ids, false);
+    }
+
+    public static EmployeeNamesChangedEvent reloadAll(){
+        return new EmployeeNamesChangedEvent(List.of(), List.of(), true);
+    }
+}
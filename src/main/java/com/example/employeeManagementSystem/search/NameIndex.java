@@ -0,0 +1,329 @@
+package com.example.employeeManagementSystem.search;
+
+import com.example.employeeManagementSystem.config.SearchConfig;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+//In-memory trigram index over employee names for the "name contains" searches - LIKE '%term%' can not use a B-tree
+//index, so without it every name search reads every row.
+//Every 3-character window of the lower-cased name (Locale.ROOT, as name_lower) maps to the sorted ids of the names that
+//contain it. A search term is split the same way, the posting lists are intersected smallest first and the survivors
+//are checked against the name itself, so the candidates are exactly the names containing the term.
+//
+//Built when the application is ready, then kept in step by EmployeeNamesChangedEvent after every commit (filter-based
+//deletes report the ids they removed). With background-load (durable profile, a million names take seconds) the
+//application is ready before the index is. A search never builds the index itself : while it is not loaded (startup,
+//after a reload event) searches use the LIKE filter alone and the load runs on the nameIndexExecutor.
+//A load builds a fresh index without holding the lock, so committing writers never wait for it : their events are
+//buffered meanwhile and replayed on the fresh index before it is swapped in.
+@Component
+public class NameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameIndex.class);
+
+    static final int GRAM = 3;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor nameIndexExecutor;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final boolean backgroundLoad;
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    //Guarded by lock - searches share it, events and the swap of a loaded index take it exclusively (briefly)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Trigrams index = new Trigrams();
+    private List<EmployeeNamesChangedEvent> buffered; //events committed while a load runs, null otherwise
+    private long generation; //bumped by a reload event, a load started before it is dropped
+    private volatile boolean loaded; //written under the write lock, read without it
+
+    //Constructor Injection
+    public NameIndex(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager,
+                     @Qualifier(SearchConfig.NAME_INDEX_EXECUTOR) TaskExecutor nameIndexExecutor,
+                     @Value("${employee.search.name-index.enabled:true}") boolean enabled,
+                     @Value("${employee.search.name-index.max-candidates:1000}") int maxCandidates,
+                     @Value("${employee.search.name-index.background-load:false}") boolean backgroundLoad) {
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.nameIndexExecutor = nameIndexExecutor;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.backgroundLoad = backgroundLoad;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(){
+        if(!enabled){
+            return;
+        }
+        if(backgroundLoad){
+            loadInBackground();
+        }else{
+            load();
+        }
+    }
+
+    //Ids (ascending) of the employees whose name contains the term, ignoring case. null when the index can not answer:
+    //disabled, term shorter than a trigram, LIKE wildcards in it, or more than max-candidates matches (the IN list
+    //would cost more than the scan) - the caller then filters with LIKE alone
+    public List<Long> candidates(String term){
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        if(!enabled || lowerTerm.length() < GRAM || lowerTerm.indexOf('%') >= 0 || lowerTerm.indexOf('_') >= 0){
+            return null;
+        }
+        if(!loaded){
+            loadInBackground();
+            return null;
+        }
+
+        lock.readLock().lock();
+        try{
+            List<Long> ids = new ArrayList<>();
+            for(long id : index.intersect(lowerTerm)){
+                if(index.names.get(id).toLowerCase(Locale.ROOT).contains(lowerTerm)){ //the trigrams may be spread over the name
+                    if(ids.size() == maxCandidates){
+                        return null;
+                    }
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //After commit only - a rolled back write never reaches the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeNamesChanged(EmployeeNamesChangedEvent event){
+        lock.writeLock().lock();
+        try{
+            if(event.reload()){
+                index = new Trigrams();
+                buffered = null;
+                generation++;
+                loaded = false; //the next search starts the load
+                return;
+            }
+            if(buffered != null){
+                buffered.add(event);
+            }
+            if(loaded){
+                index.apply(event);
+            }
+            //neither : committed already, so the next load reads it
+        }finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //One load at a time, a search finding the index not loaded (reload event) starts the next one
+    private void loadInBackground(){
+        if(!loading.compareAndSet(false, true)){
+            return;
+        }
+        try{
+            nameIndexExecutor.execute(() -> {
+                try{
+                    load();
+                }catch (RuntimeException e){
+                    logger.warn("loadInBackground, name index not loaded, searches use LIKE", e);
+                }finally {
+                    loading.set(false);
+                }
+            });
+        }catch (TaskRejectedException e){ //shutting down
+            loading.set(false);
+        }
+    }
+
+    //Streams every name into a fresh index outside the lock, then replays the events committed meanwhile and swaps it in
+    //(upserts/deletes are idempotent, an event the stream already saw does no harm)
+    private void load(){
+        long loadGeneration;
+        lock.writeLock().lock();
+        try{
+            if(loaded || buffered != null){
+                return; //loaded, or another load runs (a search before the startup load)
+            }
+            loadGeneration = generation;
+            buffered = new ArrayList<>();
+        }finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        Trigrams fresh = new Trigrams();
+        try{
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try(Stream<EmployeeName> employeeNames = employeeRepository.streamEmployeeNames()){
+                    employeeNames.forEach(employeeName -> fresh.put(employeeName.id(), employeeName.name()));
+                }
+            });
+        }catch (RuntimeException e){
+            lock.writeLock().lock();
+            try{
+                if(loadGeneration == generation){
+                    buffered = null;
+                }
+            }finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try{
+            if(loadGeneration != generation){
+                return; //a reload event came in, the rows read may be gone - the next search loads again
+            }
+            buffered.forEach(fresh::apply);
+            buffered = null;
+            index = fresh;
+            loaded = true;
+        }finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("load, {} names and {} trigrams in {} ms", fresh.names.size(), fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    //Distinct trigrams of a lower-cased string, three UTF-16 chars packed into one long. The packed value is multiplied by
+    //an odd constant (a bijection, keys stay unique) - Long.hashCode of the plain packing xors the three chars together,
+    //so most trigrams of ASCII names shared a few HashMap buckets
+    static long[] trigrams(String value){
+        if(value.length() < GRAM){
+            return new long[0];
+        }
+        long[] keys = new long[value.length() - GRAM + 1];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = (((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2)) * 0x9E3779B97F4A7C15L;
+        }
+        return Arrays.stream(keys).distinct().toArray();
+    }
+
+    //The two maps of one index - the live one is guarded by lock, a loading one belongs to the load alone
+    private static final class Trigrams {
+        final Map<Long, String> names = new HashMap<>();
+        final Map<Long, Postings> postings = new HashMap<>();
+
+        void apply(EmployeeNamesChangedEvent event){
+            event.deletedIds().forEach(this::remove);
+            event.upserted().forEach(employeeName -> put(employeeName.id(), employeeName.name()));
+        }
+
+        //Ids having every trigram of the lower-cased term - probes the shortest posting list against the others
+        long[] intersect(String lowerTerm){
+            long[] keys = trigrams(lowerTerm);
+            Postings[] lists = new Postings[keys.length];
+            for(int i = 0; i < keys.length; i++){
+                lists[i] = postings.get(keys[i]);
+                if(lists[i] == null){
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            long[] result = new long[lists[0].size];
+            int count = 0;
+            for(int i = 0; i < lists[0].size; i++){
+                long id = lists[0].ids[i];
+                boolean inAll = true;
+                for(int other = 1; other < lists.length && inAll; other++){
+                    inAll = lists[other].contains(id);
+                }
+                if(inAll){
+                    result[count++] = id;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        void put(Long id, String name){
+            remove(id);
+            names.put(id, name);
+            if(name != null){
+                for(long key : trigrams(name.toLowerCase(Locale.ROOT))){
+                    postings.computeIfAbsent(key, k -> new Postings()).add(id);
+                }
+            }
+        }
+
+        void remove(Long id){
+            String previous = names.remove(id);
+            if(previous != null){
+                for(long key : trigrams(previous.toLowerCase(Locale.ROOT))){
+                    Postings list = postings.get(key);
+                    if(list != null && list.remove(id) && list.size == 0){
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    //Sorted ids containing one trigram - new ids are usually the largest, so adding is mostly an append
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id){
+            if(size > 0 && ids[size - 1] >= id){
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if(index >= 0){
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id){
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if(index < 0){
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id){
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int index, long id){
+            if(size == ids.length){
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.employeeManagementSystem.service;
+
+import com.example.employeeManagementSystem.model.dto.IngestionJobDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface EmployeeIngestionService {
+    IngestionJobDto submit(InputStream inputStream, boolean ndjson) throws IOException;
+    IngestionJobDto getJob(String jobId);
+}
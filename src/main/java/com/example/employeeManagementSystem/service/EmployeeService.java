@@ -1,26 +1,47 @@
 package com.example.employeeManagementSystem.service;
 
+import com.example.employeeManagementSystem.model.dto.BulkDeleteResponseDto;
+import com.example.employeeManagementSystem.model.dto.BulkUpdateResponseDto;
+import com.example.employeeManagementSystem.model.dto.CursorPageDto;
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.ExportFormat;
+import com.example.employeeManagementSystem.model.dto.ImportSummaryDto;
+import com.example.employeeManagementSystem.model.dto.MultiGetResponseDto;
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface EmployeeService {
     EmployeeResponseDto addEmployee(EmployeeRequestDto employeeRequestDto);
     EmployeeResponseDto getEmployeeById(Long id);
+    MultiGetResponseDto getEmployeesByIds(List<Long> ids);
     List<EmployeeResponseDto> getAllEmployees();
+    SalaryDistributionDto getSalaryDistribution(String department, Integer minSalary, Integer maxSalary, List<Double> percentiles);
+    List<DepartmentStatsDto> getDepartmentStats();
+    long exportEmployees(OutputStream outputStream, ExportFormat format) throws IOException;
     EmployeeResponseDto searchEmployeeById(Long id);
     List<EmployeeResponseDto> searchEmployees(String name, String department, Integer minSalary);
     EmployeeResponseDto updateEmployeeById(EmployeeRequestDto employeeRequestDto, Long id);
-    List<EmployeeResponseDto> updateEmployeeByName(EmployeeRequestDto employeeRequestDto, String name);
+    EmployeeResponseDto updateEmployeeById(EmployeeRequestDto employeeRequestDto, Long id, Long expectedVersion);
+    BulkUpdateResponseDto updateEmployeeByName(EmployeeRequestDto employeeRequestDto, String name, boolean returnRows);
+    BulkUpdateResponseDto raiseSalary(String name, String department, Integer minSalary, int percent, int amount);
     List<EmployeeResponseDto> addEmployees(List<EmployeeRequestDto> employeeRequestDtoList);
+    ImportSummaryDto importEmployees(InputStream inputStream, boolean ndjson) throws IOException;
     void deleteEmployeeById(Long id);
+    BulkDeleteResponseDto deleteEmployees(List<Long> ids);
+    BulkDeleteResponseDto deleteEmployees(String name, String department, Integer minSalary);
     Page<EmployeeResponseDto> getAllEmployeesWithPagination(Pageable pageable);
     Page<EmployeeResponseDto> searchEmployeesWithPagination(String name, String department, Integer minSalary, Pageable pageable);
     Page<EmployeeResponseDto> searchEmployeesWithPagination1(String name, String department, Integer minSalary, Pageable pageable);
+    CursorPageDto<EmployeeResponseDto> searchEmployeesWithCursor(String name, String department, Integer minSalary,
+                                                                 String sortBy, boolean descending, String after, int size);
 }
@@ -0,0 +1,133 @@
+package com.example.employeeManagementSystem.service.impl;
+
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.repository.DepartmentStatsRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+//Keeps department_stats in step with the employees table. MANDATORY - always runs in the transaction of the employee
+//write, so the summary commits or rolls back together with it
+//  - rows written by the caller (add, update by id, delete by id, batches) are applied as deltas, one statement per department
+//  - set-based writes pass the departments they may have touched, which are recomputed from employees
+//Employees without a department are not part of any summary row
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class DepartmentStatsUpdater {
+
+    private final DepartmentStatsRepository departmentStatsRepository;
+
+    //Constructor Injection
+    public DepartmentStatsUpdater(DepartmentStatsRepository departmentStatsRepository) {
+        this.departmentStatsRepository = departmentStatsRepository;
+    }
+
+    //New employees - aggregated per department first, so a batch of 1000 rows is one UPDATE per department
+    public void added(Collection<SalaryRow> rows){
+        Additions additions = new Additions();
+        rows.forEach(additions::add);
+        added(additions);
+    }
+
+    //New employees collected by the caller across chunks, applied once
+    public void added(Additions additions){
+        additions.deltas.forEach(this::add);
+    }
+
+    //An UPDATE of the department's row. The first employees of a new department create the row in its own transaction
+    //(a second connection, once per department) - a concurrent writer may have created it meanwhile, then ours fails
+    //and the UPDATE finds theirs
+    private void add(String department, Delta delta){
+        if(departmentStatsRepository.add(department, delta.headcount, delta.salaryCount, delta.totalSalary,
+                delta.minSalary, delta.maxSalary) > 0){
+            return;
+        }
+        try{
+            departmentStatsRepository.createEmpty(department);
+        }catch (DataIntegrityViolationException e){
+            //created by a concurrent writer
+        }
+        departmentStatsRepository.add(department, delta.headcount, delta.salaryCount, delta.totalSalary,
+                delta.minSalary, delta.maxSalary);
+    }
+
+    public void removed(SalaryRow row){
+        if(row.department() != null){
+            departmentStatsRepository.remove(row.department(), row.salary());
+        }
+    }
+
+    //before/after of one employee - nothing to do when neither department nor salary changed
+    public void changed(SalaryRow before, SalaryRow after){
+        if(Objects.equals(before.department(), after.department()) && Objects.equals(before.salary(), after.salary())){
+            return;
+        }
+        removed(before);
+        added(List.of(after));
+    }
+
+    public void recompute(Collection<String> departments){
+        Collection<String> named = departments.stream().filter(Objects::nonNull).distinct().toList();
+        if(named.isEmpty()){
+            return;
+        }
+        departmentStatsRepository.deleteByDepartmentIn(named);
+        departmentStatsRepository.insertFromEmployees(named);
+    }
+
+    //Every spelling of one department, after a set-based write filtered on it (the department filter ignores case)
+    public void recomputeIgnoreCase(String department){
+        String lower = department.toLowerCase(Locale.ROOT);
+        departmentStatsRepository.deleteByDepartmentLower(lower);
+        departmentStatsRepository.insertFromEmployeesByDepartmentLower(lower);
+    }
+
+    //employees emptied (truncate before a snapshot restore)
+    public void removedAll(){
+        departmentStatsRepository.deleteAllInBatch();
+    }
+
+    //Whole table, for rows written around the service (tests, restores)
+    @Transactional
+    public void recomputeAll(){
+        departmentStatsRepository.deleteAllInBatch();
+        departmentStatsRepository.insertAllFromEmployees();
+    }
+
+    //Per department totals of added rows - one Delta per department however many rows are added
+    public static final class Additions {
+        private final Map<String, Delta> deltas = new HashMap<>();
+
+        public void add(SalaryRow row){
+            if(row.department() != null){
+                deltas.computeIfAbsent(row.department(), department -> new Delta()).add(row.salary());
+            }
+        }
+    }
+
+    private static final class Delta {
+        long headcount;
+        long salaryCount;
+        long totalSalary;
+        Integer minSalary;
+        Integer maxSalary;
+
+        void add(Integer salary){
+            headcount++;
+            if(salary != null){
+                salaryCount++;
+                totalSalary += salary;
+                minSalary = minSalary == null ? salary : Math.min(minSalary, salary);
+                maxSalary = maxSalary == null ? salary : Math.max(maxSalary, salary);
+            }
+        }
+    }
+}
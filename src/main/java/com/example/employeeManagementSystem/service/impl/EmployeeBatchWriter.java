@@ -0,0 +1,86 @@
+package com.example.employeeManagementSystem.service.impl;
+
+import com.example.employeeManagementSystem.analytics.EmployeesChangedEvent;
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.search.EmployeeName;
+import com.example.employeeManagementSystem.search.EmployeeNamesChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+//Bulk insert helper - persists in JDBC batches and flushes/clears the persistence context every batch-size rows,
+//so the memory held by Hibernate stays flat however many rows are inserted
+@Component
+public class EmployeeBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeBatchWriter.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final DepartmentStatsUpdater departmentStatsUpdater;
+    private final int batchSize;
+
+    public EmployeeBatchWriter(ApplicationEventPublisher eventPublisher, DepartmentStatsUpdater departmentStatsUpdater,
+                               @Value("${employee.bulk.batch-size:50}") int batchSize) {
+        this.eventPublisher = eventPublisher;
+        this.departmentStatsUpdater = departmentStatsUpdater;
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    //Joins the caller's transaction if there is one (addEmployees - all or nothing), otherwise commits on its own.
+    //The change events are published per flushed batch, department_stats gets one UPDATE per department at the end
+    @Transactional
+    public int persistAll(Iterable<Employee> employees, Consumer<Employee> onPersisted){
+        int count = 0;
+        DepartmentStatsUpdater.Additions additions = new DepartmentStatsUpdater.Additions();
+        List<SalaryRow> salaryRows = new ArrayList<>();
+        List<EmployeeName> employeeNames = new ArrayList<>();
+
+        for(Employee employee : employees){
+            entityManager.persist(employee); //id assigned here from the pooled sequence, no INSERT yet
+            onPersisted.accept(employee);
+            SalaryRow salaryRow = SalaryRow.of(employee);
+            additions.add(salaryRow);
+            salaryRows.add(salaryRow);
+            employeeNames.add(EmployeeName.of(employee));
+            count++;
+
+            if(count % batchSize == 0){
+                flush(salaryRows, employeeNames);
+                salaryRows = new ArrayList<>(); //the published events keep the old lists
+                employeeNames = new ArrayList<>();
+            }
+        }
+
+        flush(salaryRows, employeeNames);
+        departmentStatsUpdater.added(additions);
+
+        logger.debug("persistAll, {} employees persisted with batch size {}", count, batchSize);
+        return count;
+    }
+
+    private void flush(List<SalaryRow> salaryRows, List<EmployeeName> employeeNames){
+        entityManager.flush(); //one JDBC batch
+        entityManager.clear(); //detach the flushed entities
+        if(!salaryRows.isEmpty()){
+            eventPublisher.publishEvent(EmployeesChangedEvent.upserted(salaryRows));
+            eventPublisher.publishEvent(EmployeeNamesChangedEvent.upserted(employeeNames));
+        }
+    }
+}
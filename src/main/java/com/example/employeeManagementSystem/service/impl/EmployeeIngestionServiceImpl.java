@@ -0,0 +1,317 @@
+package com.example.employeeManagementSystem.service.impl;
+
+import com.example.employeeManagementSystem.config.IngestionConfig;
+import com.example.employeeManagementSystem.exception.PayloadTooLargeException;
+import com.example.employeeManagementSystem.exception.ResourceNotFoundException;
+import com.example.employeeManagementSystem.exception.ServiceBusyException;
+import com.example.employeeManagementSystem.mapper.EmployeeMapper;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.IngestionJobDto;
+import com.example.employeeManagementSystem.model.dto.IngestionStatus;
+import com.example.employeeManagementSystem.model.dto.RecordFailureDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.service.EmployeeIngestionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+//Job based bulk ingestion. submit spools the payload to a temp file and returns at once, a worker of the bounded
+//ingestionExecutor then streams the file and commits valid records every chunk-size rows (EmployeeBatchWriter).
+//Memory per job is one chunk plus the reported failures however large the payload is, and a slow database only
+//fills the queue - once it is full further submits are rejected with ServiceBusyException (503 + Retry-After).
+//A payload is spooled up to employee.ingestion.max-payload-size (413 beyond it), so the disk used by jobs is bounded by
+//that size times the queued and running jobs. Spool files of jobs that never ran are deleted on shutdown
+@Service
+public class EmployeeIngestionServiceImpl implements EmployeeIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeIngestionServiceImpl.class);
+
+    private final ThreadPoolTaskExecutor ingestionExecutor;
+    private final EmployeeBatchWriter employeeBatchWriter;
+    private final EmployeeMapper employeeMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxFailuresReported;
+    private final Duration retention;
+    private final long maxPayloadBytes;
+
+    //Jobs by id, finished jobs are dropped after employee.ingestion.retention
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    //Constructor Injection
+    public EmployeeIngestionServiceImpl(@Qualifier(IngestionConfig.INGESTION_EXECUTOR) ThreadPoolTaskExecutor ingestionExecutor,
+                                        EmployeeBatchWriter employeeBatchWriter, EmployeeMapper employeeMapper,
+                                        ObjectMapper objectMapper, Validator validator,
+                                        @Value("${employee.ingestion.chunk-size:500}") int chunkSize,
+                                        @Value("${employee.ingestion.max-failures-reported:1000}") int maxFailuresReported,
+                                        @Value("${employee.ingestion.retention:1h}") Duration retention,
+                                        @Value("${employee.ingestion.max-payload-size:512MB}") DataSize maxPayloadSize) {
+        this.ingestionExecutor = ingestionExecutor;
+        this.employeeBatchWriter = employeeBatchWriter;
+        this.employeeMapper = employeeMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxFailuresReported = maxFailuresReported;
+        this.retention = retention;
+        this.maxPayloadBytes = maxPayloadSize.toBytes();
+    }
+
+    @Override
+    public IngestionJobDto submit(InputStream inputStream, boolean ndjson) throws IOException {
+        purgeFinishedJobs();
+
+        //Reject before reading the body if no worker and no queue slot is free
+        if(ingestionExecutor.getQueueSize() >= ingestionExecutor.getQueueCapacity()
+                && ingestionExecutor.getActiveCount() >= ingestionExecutor.getMaxPoolSize()){
+            throw new ServiceBusyException("Ingestion queue is full, please retry later");
+        }
+
+        //The request body can only be read on the request thread, so it is spooled to disk rather than to the heap
+        Path payload = Files.createTempFile("employee-ingestion-", ndjson ? ".ndjson" : ".json");
+        long payloadSize;
+        try{
+            payloadSize = spool(inputStream, payload);
+        }catch (IOException | RuntimeException e){
+            Files.deleteIfExists(payload);
+            throw e;
+        }
+
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), payload);
+        jobs.put(job.id, job);
+        try{
+            ingestionExecutor.execute(() -> run(job, ndjson));
+        }catch (TaskRejectedException e){
+            //Queue filled up while the body was being spooled
+            jobs.remove(job.id);
+            Files.deleteIfExists(payload);
+            throw new ServiceBusyException("Ingestion queue is full, please retry later");
+        }
+
+        logger.info("submit, job {} queued, payload is {} bytes", job.id, payloadSize);
+        return job.toDto();
+    }
+
+    //Copies the body to the spool file, stops at maxPayloadBytes instead of filling the disk
+    private long spool(InputStream inputStream, Path payload) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[8192];
+        try(OutputStream outputStream = Files.newOutputStream(payload)){
+            int read;
+            while((read = inputStream.read(buffer)) != -1){
+                size += read;
+                if(size > maxPayloadBytes){
+                    throw new PayloadTooLargeException("Ingestion payload is larger than " + maxPayloadBytes + " bytes, please split it");
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public IngestionJobDto getJob(String jobId) {
+        IngestionJob job = jobs.get(jobId);
+        if(job == null){
+            throw new ResourceNotFoundException("Ingestion job not found with id: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    //Runs before the ingestionExecutor shuts down (it depends on it) - the executor would drop the queued jobs, so they
+    //are taken off its queue here, marked FAILED and their spool files deleted. Running jobs are not touched
+    @PreDestroy
+    public void discardQueuedJobs(){
+        List<Runnable> dropped = new ArrayList<>();
+        ingestionExecutor.getThreadPoolExecutor().getQueue().drainTo(dropped);
+        for(IngestionJob job : jobs.values()){
+            if(job.cancel("Shut down before the job could run")){
+                deletePayload(job);
+            }
+        }
+        if(!dropped.isEmpty()){
+            logger.warn("discardQueuedJobs, {} queued ingestion jobs discarded on shutdown", dropped.size());
+        }
+    }
+
+    //Runs on an ingestion worker. A chunk that can not be committed fails the job, earlier chunks stay committed
+    private void run(IngestionJob job, boolean ndjson){
+        if(!job.start()){
+            return; //discarded on shutdown
+        }
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        String error = null;
+        try(InputStream inputStream = new BufferedInputStream(Files.newInputStream(job.payload))){
+            EmployeeRecordReader.read(inputStream, ndjson, objectMapper, new EmployeeRecordReader.RecordHandler() {
+                @Override
+                public void record(EmployeeRequestDto employeeRequestDto, long lineNumber) {
+                    job.received.incrementAndGet();
+                    String reason = validate(employeeRequestDto);
+                    if(reason != null){
+                        job.fail(lineNumber, reason);
+                        return;
+                    }
+                    chunk.add(employeeMapper.toEntity(employeeRequestDto));
+                    if(chunk.size() >= chunkSize){
+                        commit(job, chunk);
+                    }
+                }
+
+                @Override
+                public void malformed(long lineNumber, String reason) {
+                    job.received.incrementAndGet();
+                    job.fail(lineNumber, reason);
+                }
+            });
+            commit(job, chunk);
+        }catch (IOException | RuntimeException e){
+            logger.warn("run, job {} failed after {} imported records", job.id, job.imported, e);
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        }finally {
+            deletePayload(job); //the stream is closed, and the job does not report its outcome before its spool file is gone
+        }
+        if(error != null){
+            job.finish(IngestionStatus.FAILED, error);
+            return;
+        }
+        job.finish(IngestionStatus.COMPLETED, null);
+        logger.info("run, job {} completed, received {}, imported {}, failed {}", job.id, job.received, job.imported, job.failed);
+    }
+
+    private void deletePayload(IngestionJob job){
+        try{
+            Files.deleteIfExists(job.payload);
+        }catch (IOException e){
+            logger.warn("could not delete payload {} of job {}", job.payload, job.id, e);
+        }
+    }
+
+    private void commit(IngestionJob job, List<Employee> chunk){
+        if(!chunk.isEmpty()){
+            job.imported.addAndGet(employeeBatchWriter.persistAll(chunk, emp -> {}));
+            chunk.clear();
+        }
+    }
+
+    //null when valid, otherwise "field: message" of every violation
+    private String validate(EmployeeRequestDto employeeRequestDto){
+        if(employeeRequestDto == null){
+            return "empty record";
+        }
+        Set<ConstraintViolation<EmployeeRequestDto>> violations = validator.validate(employeeRequestDto);
+        if(violations.isEmpty()){
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void purgeFinishedJobs(){
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    //Mutable state of one job - written by its worker only, read by getJob from any thread
+    private final class IngestionJob {
+        private final String id;
+        private final Path payload;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicInteger received = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<RecordFailureDto> failures = new ArrayList<>();
+        private volatile IngestionStatus status = IngestionStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startNanos;
+        private volatile long finishNanos;
+        private volatile String error;
+
+        IngestionJob(String id, Path payload){
+            this.id = id;
+            this.payload = payload;
+        }
+
+        //false when the job was cancelled while it was queued
+        synchronized boolean start(){
+            if(status != IngestionStatus.QUEUED){
+                return false;
+            }
+            startNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+            status = IngestionStatus.RUNNING;
+            return true;
+        }
+
+        //Only a job that has not started yet can be cancelled
+        synchronized boolean cancel(String message){
+            if(status != IngestionStatus.QUEUED){
+                return false;
+            }
+            startNanos = System.nanoTime();
+            finish(IngestionStatus.FAILED, message);
+            return true;
+        }
+
+        void fail(long lineNumber, String reason){
+            failed.incrementAndGet();
+            synchronized (failures){
+                if(failures.size() < maxFailuresReported){
+                    failures.add(new RecordFailureDto(lineNumber, reason));
+                }
+            }
+        }
+
+        void finish(IngestionStatus finalStatus, String message){
+            finishNanos = System.nanoTime();
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        IngestionJobDto toDto(){
+            IngestionStatus currentStatus = status;
+            double recordsPerSecond = 0;
+            if(currentStatus != IngestionStatus.QUEUED){
+                long end = currentStatus == IngestionStatus.RUNNING ? System.nanoTime() : finishNanos;
+                double seconds = Math.max(end - startNanos, 1) / 1_000_000_000.0;
+                recordsPerSecond = Math.round(imported.get() / seconds * 10) / 10.0;
+            }
+            List<RecordFailureDto> failuresCopy;
+            synchronized (failures){
+                failuresCopy = List.copyOf(failures);
+            }
+            return new IngestionJobDto(id, currentStatus, received.get(), imported.get(), failed.get(), recordsPerSecond,
+                    submittedAt, startedAt, finishedAt, error, failuresCopy);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.employeeManagementSystem.service.impl;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+//Streams employee records out of an NDJSON body (one per line) or a JSON array, only one record is materialized at a time.
+//Used by importEmployees and the ingestion jobs. Records are reported with their position in the body : the line number
+//for NDJSON, the element number (1-based) for a JSON array - a whole array is often a single line
+final class EmployeeRecordReader {
+
+    interface RecordHandler {
+        void record(EmployeeRequestDto employeeRequestDto, long position);
+
+        void malformed(long position, String reason);
+    }
+
+    private EmployeeRecordReader(){
+    }
+
+    static void read(InputStream inputStream, boolean ndjson, ObjectMapper objectMapper, RecordHandler handler) throws IOException {
+        if(ndjson){
+            //One record per line, a bad line is reported and skipped
+            ObjectReader reader = objectMapper.readerFor(EmployeeRequestDto.class);
+            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            String line;
+            long lineNumber = 0;
+            while((line = bufferedReader.readLine()) != null){
+                lineNumber++;
+                if(line.isBlank()){
+                    continue;
+                }
+                EmployeeRequestDto employeeRequestDto;
+                try{
+                    employeeRequestDto = reader.readValue(line);
+                }catch (JsonProcessingException e){
+                    handler.malformed(lineNumber, e.getOriginalMessage());
+                    continue;
+                }
+                handler.record(employeeRequestDto, lineNumber);
+            }
+            return;
+        }
+
+        //JSON array, read one element at a time with the streaming parser
+        try(JsonParser parser = objectMapper.createParser(inputStream)){
+            if(parser.nextToken() != JsonToken.START_ARRAY){
+                throw new JsonParseException(parser, "Expected a JSON array of employees");
+            }
+            long elementNumber = 0;
+            while(parser.nextToken() != JsonToken.END_ARRAY){
+                elementNumber++;
+                EmployeeRequestDto employeeRequestDto;
+                try{
+                    JsonNode node = parser.readValueAsTree(); //only this element is materialized
+                    employeeRequestDto = objectMapper.treeToValue(node, EmployeeRequestDto.class);
+                }catch (JsonParseException e){
+                    //Malformed JSON, the parser can not recover from this - stop here
+                    handler.malformed(elementNumber, e.getOriginalMessage());
+                    return;
+                }catch (JsonProcessingException e){
+                    handler.malformed(elementNumber, e.getOriginalMessage());
+                    continue;
+                }
+                handler.record(employeeRequestDto, elementNumber);
+            }
+        }
+    }
+}
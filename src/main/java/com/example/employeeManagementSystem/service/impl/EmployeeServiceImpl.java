@@ -1,21 +1,69 @@
 package com.example.employeeManagementSystem.service.impl;
 
+import com.example.employeeManagementSystem.analytics.EmployeesChangedEvent;
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.analytics.SalarySnapshot;
+import com.example.employeeManagementSystem.config.CacheConfig;
+import com.example.employeeManagementSystem.exception.BadRequestException;
+import com.example.employeeManagementSystem.exception.PreconditionFailedException;
 import com.example.employeeManagementSystem.exception.ResourceNotFoundException;
+import com.example.employeeManagementSystem.logging.PayloadLogging;
+import com.example.employeeManagementSystem.mapper.EmployeeMapper;
+import com.example.employeeManagementSystem.model.dto.BulkDeleteResponseDto;
+import com.example.employeeManagementSystem.model.dto.BulkUpdateResponseDto;
+import com.example.employeeManagementSystem.model.dto.CursorPageDto;
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.ExportFormat;
+import com.example.employeeManagementSystem.model.dto.ImportSummaryDto;
+import com.example.employeeManagementSystem.model.dto.MultiGetResponseDto;
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
+import com.example.employeeManagementSystem.repository.DepartmentStatsRepository;
 import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.repository.EmployeeSpecifications;
 import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.search.EmployeeName;
+import com.example.employeeManagementSystem.search.EmployeeNamesChangedEvent;
+import com.example.employeeManagementSystem.search.NameIndex;
 import com.example.employeeManagementSystem.service.EmployeeService;
-import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 
 
@@ -24,279 +72,638 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
+    //Ids per DELETE ... IN (...) statement
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    //Ids per UPDATE ... IN (...) and the follow-up SELECT of updateEmployeeByName
+    private static final int WRITE_CHUNK_SIZE = 500;
+
+    //Ids per SELECT ... IN (...) of getEmployeesByIds - a power of two, so padded lists never exceed it
+    private static final int MULTI_GET_CHUNK_SIZE = 128;
+    private static final int MULTI_GET_MAX_IDS = 1000;
+
+    //Rejected records listed in an import summary, the rest are only counted
+    private static final int IMPORT_MAX_FAILED_LINES = 100;
+
     private final EmployeeRepository employeeRepository;
-    private final ModelMapper mapper;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository, ModelMapper mapper) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final EmployeeMapper employeeMapper;
+    private final EmployeeBatchWriter employeeBatchWriter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PayloadLogging payloadLogging;
+    private final SalarySnapshot salarySnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DepartmentStatsRepository departmentStatsRepository;
+    private final DepartmentStatsUpdater departmentStatsUpdater;
+    private final NameIndex nameIndex;
+    private final int importChunkSize;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper, EmployeeBatchWriter employeeBatchWriter,
+                               ObjectMapper objectMapper, Validator validator, PayloadLogging payloadLogging,
+                               SalarySnapshot salarySnapshot, ApplicationEventPublisher eventPublisher,
+                               DepartmentStatsRepository departmentStatsRepository, DepartmentStatsUpdater departmentStatsUpdater,
+                               NameIndex nameIndex, @Value("${employee.import.chunk-size:1000}") int importChunkSize) {
         this.employeeRepository = employeeRepository;
-        this.mapper = mapper;
+        this.employeeMapper = employeeMapper;
+        this.employeeBatchWriter = employeeBatchWriter;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.payloadLogging = payloadLogging;
+        this.salarySnapshot = salarySnapshot;
+        this.eventPublisher = eventPublisher;
+        this.departmentStatsRepository = departmentStatsRepository;
+        this.departmentStatsUpdater = departmentStatsUpdater;
+        this.nameIndex = nameIndex;
+        this.importChunkSize = importChunkSize;
     }
 
     @Override
     @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#result.id")
     public EmployeeResponseDto addEmployee(EmployeeRequestDto employeeRequestDto){
-        logger.info("addEmployee, employeeRequestDto is {}", employeeRequestDto);
-        //Employee employee = mapper.map(employeeRequestDto, Employee.class); //ModelMapper did not work
-
-        Employee employee = mapEmployeeRequestDtoToEmployeeEntity(employeeRequestDto);
+        logger.info("addEmployee, employeeRequestDto is {}", payloadLogging.of("addEmployee", employeeRequestDto));
+        Employee employee = employeeMapper.toEntity(employeeRequestDto);
 
         logger.debug("addEmployee, employee is {}", employee);
         Employee saved = employeeRepository.save(employee);
-        logger.info("addEmployee, saved is {}", saved);
-        return mapper.map(saved, EmployeeResponseDto.class);
+        logger.info("addEmployee, saved is {}", payloadLogging.of("addEmployee", saved));
+        List<SalaryRow> salaryRows = List.of(SalaryRow.of(saved));
+        departmentStatsUpdater.added(salaryRows);
+        eventPublisher.publishEvent(EmployeesChangedEvent.upserted(salaryRows));
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.upserted(List.of(EmployeeName.of(saved))));
+        return employeeMapper.toResponseDto(saved);
     }
 
     @Override
     @Transactional
     public List<EmployeeResponseDto> addEmployees(List<EmployeeRequestDto> employeeRequestDtoList){
-        logger.info("addEmployees, employeeRequestDtoList is {}", employeeRequestDtoList);
-        List<EmployeeResponseDto> employeeResponseDtoList = new ArrayList<>();
-        List<Employee> employeeList;
+        logger.info("addEmployees, employeeRequestDtoList is {}", payloadLogging.of("addEmployees", employeeRequestDtoList));
 
         if(employeeRequestDtoList == null || employeeRequestDtoList.isEmpty()){
             throw new ResourceNotFoundException("No Employees data found to add");
         }
 
-        employeeList = employeeRequestDtoList.stream().map(this::mapEmployeeRequestDtoToEmployeeEntity).toList();
+        List<EmployeeResponseDto> employeeResponseDtoList = new ArrayList<>(employeeRequestDtoList.size());
 
-        /*
-        for(EmployeeRequestDto employeeRequestDto : employeeRequestDtoList){
-            employeeList.add(mapEmployeeRequestDtoToEmployeeEntity(employeeRequestDto));
-        }
-        */
+        //Entities are mapped lazily and cleared from the persistence context every batch, so they are not all held at once
+        Iterable<Employee> employees = employeeRequestDtoList.stream().map(employeeMapper::toEntity)::iterator;
+
+        //Batched inserts (JDBC batch + flush/clear every batch-size rows) instead of saveAll
+        employeeBatchWriter.persistAll(employees, emp -> employeeResponseDtoList.add(employeeMapper.toResponseDto(emp)));
+
+        logger.info("addEmployees, {} employees added", employeeResponseDtoList.size());
+        return employeeResponseDtoList;
+    }
+
+    //Not @Transactional on purpose - every chunk is committed on its own by EmployeeBatchWriter
+    @Override
+    public ImportSummaryDto importEmployees(InputStream inputStream, boolean ndjson) throws IOException {
+        ImportChunk chunk = new ImportChunk();
+
+        //Earlier chunks stay committed if the body turns out to be malformed half way
+        EmployeeRecordReader.read(inputStream, ndjson, objectMapper, new EmployeeRecordReader.RecordHandler() {
+            @Override
+            public void record(EmployeeRequestDto employeeRequestDto, long lineNumber) {
+                chunk.add(employeeRequestDto, lineNumber);
+            }
+
+            @Override
+            public void malformed(long lineNumber, String reason) {
+                chunk.fail(lineNumber);
+            }
+        });
 
-        logger.debug("addEmployees, employeeList is {}", employeeList);
+        chunk.flush();
+        ImportSummaryDto importSummaryDto = new ImportSummaryDto(chunk.received, chunk.imported, chunk.failed, chunk.failedLines);
+        logger.info("importEmployees, received {}, imported {}, failed {}", importSummaryDto.received(), importSummaryDto.imported(), importSummaryDto.failed());
+        return importSummaryDto;
+    }
 
-        //saveAll
-        List<Employee> employeeListAdded = employeeRepository.saveAll(employeeList);
+    //Buffers at most importChunkSize valid records before persisting them
+    private class ImportChunk {
+        private final List<Employee> employees = new ArrayList<>(importChunkSize);
+        private final List<Long> failedLines = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int failed;
+
+        void add(EmployeeRequestDto employeeRequestDto, long lineNumber){
+            received++;
+            if(employeeRequestDto == null || !validator.validate(employeeRequestDto).isEmpty()){
+                failed(lineNumber);
+                return;
+            }
+            employees.add(employeeMapper.toEntity(employeeRequestDto));
+            if(employees.size() >= importChunkSize){
+                flush();
+            }
+        }
 
-        //map EmployeeEntity To EmployeeResponseDto
-        if(employeeListAdded !=null && !employeeListAdded.isEmpty()) {
-            employeeResponseDtoList = employeeListAdded.stream().map(emp -> mapEmployeeEntityToEmployeeResponseDto(emp)).toList();
+        void fail(long lineNumber){
+            received++;
+            failed(lineNumber);
         }
 
-        /*
-        //Map to ResponseDto
-        if(employeeListAdded !=null && !employeeListAdded.isEmpty()){
-            for(Employee emp : employeeListAdded){
-                employeeResponseDtoList.add(mapEmployeeEntityToEmployeeResponseDto(emp));
+        private void failed(long lineNumber){
+            failed++;
+            if(failedLines.size() < IMPORT_MAX_FAILED_LINES){
+                failedLines.add(lineNumber);
             }
         }
-        */
 
-        logger.info("addEmployees, employeeListAdded is {}", employeeListAdded);
-        return employeeResponseDtoList;
+        void flush(){
+            if(!employees.isEmpty()){
+                imported += employeeBatchWriter.persistAll(employees, emp -> {});
+                employees.clear();
+            }
+        }
     }
 
+    //Read-through cache, sync = true so concurrent misses on the same id load it only once
+    //addEmployees/importEmployees need no eviction - new ids can not be in the cache (misses are not cached)
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", sync = true)
     public EmployeeResponseDto getEmployeeById(Long id) {
-        Employee employee = employeeRepository.findById(id)
+        //Projection query - EmployeeResponseDto is built from the result set, no managed entity
+        return employeeRepository.findDtoById(id)
                 .orElseThrow(()->new ResourceNotFoundException("Employee not found with id: " + id));
-        return mapper.map(employee, EmployeeResponseDto.class);
     }
 
+    //Chunked SELECT ... WHERE id IN (...) instead of one findById per id. Result follows the order of the
+    //requested ids (duplicates collapsed), unknown ids are reported in missingIds rather than failing the call
     @Override
-    public List<EmployeeResponseDto> getAllEmployees(){
-        return employeeRepository.findAll().stream()
-                .map(employee->mapper.map(employee,EmployeeResponseDto.class))
-                .toList();
+    @Transactional(readOnly = true)
+    public MultiGetResponseDto getEmployeesByIds(List<Long> ids){
+        if(ids == null || ids.isEmpty()){
+            throw new BadRequestException("No Employee ids given");
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if(distinctIds.size() > MULTI_GET_MAX_IDS){
+            throw new BadRequestException("At most " + MULTI_GET_MAX_IDS + " ids per request, got " + distinctIds.size());
+        }
+
+        Map<Long, EmployeeResponseDto> found = new HashMap<>(distinctIds.size() * 2);
+        for(int from = 0; from < distinctIds.size(); from += MULTI_GET_CHUNK_SIZE){
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MULTI_GET_CHUNK_SIZE, distinctIds.size()));
+            employeeRepository.findDtosByIdIn(chunk).forEach(dto -> found.put(dto.getId(), dto));
+        }
+
+        List<EmployeeResponseDto> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for(Long id : distinctIds){
+            EmployeeResponseDto dto = found.get(id);
+            if(dto != null){
+                employees.add(dto);
+            }else{
+                missingIds.add(id);
+            }
+        }
+
+        logger.info("getEmployeesByIds, {} of {} ids found", employees.size(), distinctIds.size());
+        return new MultiGetResponseDto(employees, missingIds);
     }
 
+    //Served from the in-memory SalarySnapshot, no employee row is read unless the snapshot has to (re)load
     @Override
-    public EmployeeResponseDto searchEmployeeById(Long id){
-        Employee employee = employeeRepository.findById(id)
-                .orElseThrow(()->new ResourceNotFoundException("Employee not found with id: " + id));
-        return mapper.map(employee, EmployeeResponseDto.class);
+    public SalaryDistributionDto getSalaryDistribution(String department, Integer minSalary, Integer maxSalary, List<Double> percentiles){
+        if(minSalary != null && maxSalary != null && minSalary > maxSalary){
+            throw new BadRequestException("minSalary must not be greater than maxSalary");
+        }
+        if(percentiles.stream().anyMatch(p -> p == null || p <= 0 || p > 100)){
+            throw new BadRequestException("percentiles must be greater than 0 and at most 100");
+        }
+        return salarySnapshot.distribution(department, minSalary, maxSalary, percentiles);
     }
 
     @Override
-    public List<EmployeeResponseDto> searchEmployees(String name, String department, Integer minSalary){
+    @Transactional(readOnly = true)
+    public List<EmployeeResponseDto> getAllEmployees(){
+        return employeeRepository.findAllDtos();
+    }
 
-        //Get All employees
-        List<Employee> employeeList = employeeRepository.findAll();
+    //Rows are read from a forward-only cursor, written and detached one by one, so memory stays flat for any table size
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(OutputStream outputStream, ExportFormat format) throws IOException {
+        long count = 0;
+
+        try(Stream<Employee> employeeStream = employeeRepository.streamAllBy()){
+            Iterator<Employee> iterator = employeeStream.iterator();
+
+            if(format == ExportFormat.CSV){
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write("id,name,salary,department,email\n");
+                while(iterator.hasNext()){
+                    Employee employee = iterator.next();
+                    writer.write(String.valueOf(employee.getId()));
+                    writer.write(',');
+                    writer.write(csvValue(employee.getName()));
+                    writer.write(',');
+                    writer.write(employee.getSalary() == null ? "" : employee.getSalary().toString());
+                    writer.write(',');
+                    writer.write(csvValue(employee.getDepartment()));
+                    writer.write(',');
+                    writer.write(csvValue(employee.getEmail()));
+                    writer.write('\n');
+                    entityManager.detach(employee);
+                    count++;
+                }
+                writer.flush();
+            }else{
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null); //records are separated by the new line below, not a space
+                while(iterator.hasNext()){
+                    Employee employee = iterator.next();
+                    objectMapper.writeValue(generator, employeeMapper.toResponseDto(employee));
+                    generator.writeRaw('\n');
+                    entityManager.detach(employee);
+                    count++;
+                }
+                generator.close();
+            }
+        }
 
-        //Create employees stream - useful for small dataset
-        Stream<Employee> employeesStream = employeeList.stream();
+        logger.info("exportEmployees, {} employees exported as {}", count, format);
+        return count;
+    }
 
-        //Apply dynamic filters
-        if(name !=null && !name.isBlank()){
-            var lowerCaseName = name.toLowerCase();
-            employeesStream = employeesStream.filter(emp->emp.getName().toLowerCase().contains(lowerCaseName));
+    //Quotes a CSV field when it contains a separator, quote or line break
+    private String csvValue(String value){
+        if(value == null){
+            return "";
         }
-
-        if(department !=null && !department.isBlank()){
-            employeesStream = employeesStream.filter(emp->emp.getDepartment().equalsIgnoreCase(department));
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0){
+            return value;
         }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 
-        if(minSalary != null){
-            employeesStream = employeesStream.filter(emp->emp.getSalary() >= minSalary);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", sync = true)
+    public EmployeeResponseDto searchEmployeeById(Long id){
+        return employeeRepository.findDtoById(id)
+                .orElseThrow(()->new ResourceNotFoundException("Employee not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeResponseDto> searchEmployees(String name, String department, Integer minSalary){
 
-        //Map to EmployeeResponseDto and then to List
-        return employeesStream.map(this::mapEmployeeEntityToEmployeeResponseDto).toList();
+        //Filters are applied in the database (indexed department/salary/name_lower), only matching rows are read,
+        //straight into EmployeeResponseDto
+        Specification<Employee> spec = searchSpec(name, department, minSalary);
+        if(spec == null){
+            return List.of();
+        }
+        return employeeRepository.findDtos(spec, Sort.unsorted(), 0);
 
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
     public EmployeeResponseDto updateEmployeeById(EmployeeRequestDto employeeRequestDto, Long id){
-        logger.info("updateEmployeeById, employeeRequestDto is {} and id is {}", employeeRequestDto, id);
+        return updateEmployeeById(employeeRequestDto, id, null);
+    }
+
+    //expectedVersion (If-Match) null means any version. A writer committing between the read and the flush is caught
+    //by the version check of the UPDATE itself (ObjectOptimisticLockingFailureException)
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public EmployeeResponseDto updateEmployeeById(EmployeeRequestDto employeeRequestDto, Long id, Long expectedVersion){
+        logger.info("updateEmployeeById, employeeRequestDto is {} and id is {}", payloadLogging.of("updateEmployeeById", employeeRequestDto), id);
 
         Employee existingEmployee = employeeRepository.findById(id)
                 .orElseThrow(()->new ResourceNotFoundException("Resource not found for the given id: "+id));
 
         logger.debug("updateEmployeeById, existingEmployee is {}", existingEmployee);
+        if(expectedVersion != null && !expectedVersion.equals(existingEmployee.getVersion())){
+            throw new PreconditionFailedException("Employee " + id + " was modified, current version is " + existingEmployee.getVersion());
+        }
+        SalaryRow before = SalaryRow.of(existingEmployee);
 
-        existingEmployee.setName(employeeRequestDto.name());
-        existingEmployee.setSalary(employeeRequestDto.salary());
-        existingEmployee.setDepartment(employeeRequestDto.department());
-        existingEmployee.setEmail(employeeRequestDto.email());
+        employeeMapper.updateEntity(employeeRequestDto, existingEmployee);
 
         logger.debug("updateEmployeeById, existingEmployee after change is {}", existingEmployee);
 
-        Employee updated = employeeRepository.save(existingEmployee);
-        logger.info("updateEmployeeById, updated is {}", updated);
-        return mapper.map(updated, EmployeeResponseDto.class);
+        Employee updated = employeeRepository.saveAndFlush(existingEmployee); //flushed, so the response carries the new version
+        logger.info("updateEmployeeById, updated is {}", payloadLogging.of("updateEmployeeById", updated));
+        SalaryRow after = SalaryRow.of(updated);
+        departmentStatsUpdater.changed(before, after);
+        eventPublisher.publishEvent(EmployeesChangedEvent.upserted(List.of(after)));
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.upserted(List.of(EmployeeName.of(updated))));
+        return employeeMapper.toResponseDto(updated);
 
     }
 
+    //The ids of the updated rows are not known up front, so drop the whole cache
     @Override
     @Transactional
-    public List<EmployeeResponseDto> updateEmployeeByName(EmployeeRequestDto employeeRequestDto, String name) {
-        logger.info("updateEmployeeByName, employeeRequestDto is {} and name is {}", employeeRequestDto, name);
-        List<Employee> existingEmployeeList = employeeRepository.findByName(name);
-
-        if(existingEmployeeList.isEmpty()){
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public BulkUpdateResponseDto updateEmployeeByName(EmployeeRequestDto employeeRequestDto, String name, boolean returnRows) {
+        logger.info("updateEmployeeByName, employeeRequestDto is {} and name is {}", payloadLogging.of("updateEmployeeByName", employeeRequestDto), name);
+
+        //The rows called name before the update - the UPDATE and the returned rows are limited to their ids, so a row
+        //that already held the new values is not reported as updated
+        List<SalaryRow> before = employeeRepository.findSalaryRowsByName(name);
+        if(before.isEmpty()){
             throw new ResourceNotFoundException("Resource not found for the name : "+name);
         }
+        List<Long> ids = before.stream().map(SalaryRow::id).toList();
+
+        //Set-based UPDATEs by id instead of findByName + save per row
+        String department = employeeRequestDto.department();
+        int updatedCount = 0;
+        for(int from = 0; from < ids.size(); from += WRITE_CHUNK_SIZE){
+            updatedCount += employeeRepository.updateByIdIn(ids.subList(from, Math.min(from + WRITE_CHUNK_SIZE, ids.size())),
+                    employeeRequestDto.name(), employeeRequestDto.name().toLowerCase(Locale.ROOT), employeeRequestDto.salary(),
+                    department, department == null ? null : department.toLowerCase(Locale.ROOT), employeeRequestDto.email());
+        }
 
-        logger.debug("updateEmployeeByName, existingEmployeeList is {}", existingEmployeeList);
-
-        List<EmployeeResponseDto> employeeResponseDtoList = new ArrayList<>();
-
-        for(Employee existingEmployee : existingEmployeeList){
-            existingEmployee.setSalary(employeeRequestDto.salary());
-            existingEmployee.setDepartment(employeeRequestDto.department());
-            existingEmployee.setEmail(employeeRequestDto.email());
-            existingEmployee.setName(employeeRequestDto.name());
+        logger.info("updateEmployeeByName, {} employees updated", updatedCount);
+        //Departments of the rows before the update, the new department after it
+        Set<String> departments = new HashSet<>();
+        before.forEach(row -> departments.add(row.department()));
+        departments.add(department);
+        departmentStatsUpdater.recompute(departments);
+        eventPublisher.publishEvent(EmployeesChangedEvent.upserted(ids.stream()
+                .map(id -> new SalaryRow(id, employeeRequestDto.salary(), department)).toList()));
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.upserted(ids.stream()
+                .map(id -> new EmployeeName(id, employeeRequestDto.name())).toList()));
+
+        if(!returnRows){
+            return new BulkUpdateResponseDto(updatedCount, null);
+        }
 
-            //save
-            Employee saved = employeeRepository.save(existingEmployee);
+        //Follow-up read of exactly those ids
+        List<EmployeeResponseDto> employees = new ArrayList<>(ids.size());
+        for(int from = 0; from < ids.size(); from += WRITE_CHUNK_SIZE){
+            employees.addAll(employeeRepository.findDtosByIdIn(ids.subList(from, Math.min(from + WRITE_CHUNK_SIZE, ids.size()))));
+        }
+        employees.sort(Comparator.comparing(EmployeeResponseDto::getId));
+        return new BulkUpdateResponseDto(updatedCount, employees);
 
-            logger.info("updateEmployeeByName, existingEmployee {} is updated", saved);
+    }
 
-            //map to dto
-            employeeResponseDtoList.add(mapEmployeeEntityToEmployeeResponseDto(saved));
+    //Filter-based bulk update, e.g. +10% for a department - one UPDATE, no read-modify-write
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public BulkUpdateResponseDto raiseSalary(String name, String department, Integer minSalary, int percent, int amount){
+        logger.info("raiseSalary, name is {}, department is {}, minSalary is {}, percent is {}, amount is {}", name, department, minSalary, percent, amount);
 
+        boolean noFilter = (name == null || name.isBlank()) && (department == null || department.isBlank()) && minSalary == null;
+        if(noFilter){
+            throw new BadRequestException("At least one of name, department or minSalary is required");
+        }
+        if(percent == 0 && amount == 0){
+            throw new BadRequestException("percent or amount is required");
+        }
+        if(percent <= -100){
+            throw new BadRequestException("percent must be greater than -100, salaries must stay positive");
         }
 
-        logger.info("updateEmployeeByName, updated Employees List is {} ", employeeResponseDtoList);
-
-        return employeeResponseDtoList;
-
-    }
+        Specification<Employee> spec = EmployeeSpecifications.matching(name, department, minSalary);
+        List<String> departments = departmentsMatching(spec, department);
+        int updatedCount = employeeRepository.updateSalary(spec, percent, amount);
 
-    public EmployeeResponseDto mapEmployeeEntityToEmployeeResponseDto(Employee employee){
-        EmployeeResponseDto employeeResponseDto = new EmployeeResponseDto();
-        employeeResponseDto.setName(employee.getName());
-        employeeResponseDto.setSalary(employee.getSalary());
-        employeeResponseDto.setDepartment(employee.getDepartment());
-        employeeResponseDto.setEmail(employee.getEmail());
-        if(employee.getId()!=null) employeeResponseDto.setId(employee.getId());
-        return employeeResponseDto;
+        logger.info("raiseSalary, {} employees updated", updatedCount);
+        if(updatedCount > 0){
+            recomputeDepartments(departments, department);
+            eventPublisher.publishEvent(EmployeesChangedEvent.reloadAll());
+        }
+        return new BulkUpdateResponseDto(updatedCount, null);
     }
 
-    public Employee mapEmployeeRequestDtoToEmployeeEntity(EmployeeRequestDto employeeRequestDto){
-        Employee employee = new Employee();
-        employee.setName(employeeRequestDto.name());
-        employee.setSalary(employeeRequestDto.salary());
-        employee.setDepartment(employeeRequestDto.department());
-        employee.setEmail(employeeRequestDto.email());
-        return employee;
-    }
 
 
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
     public void deleteEmployeeById(Long id){
-        Employee employee = employeeRepository.findById(id)
+        //Department and salary only (no entity) for department_stats, then one DELETE statement - a lookup by primary
+        //key, kept portable instead of a database-specific DELETE ... RETURNING
+        SalaryRow deletedRow = employeeRepository.findSalaryRowById(id)
                 .orElseThrow(()->new ResourceNotFoundException("Resource not found for the Id: "+id));
+        int deleted = employeeRepository.deleteEmployeeById(id);
 
-        //Delete
-        employeeRepository.delete(employee);
+        if(deleted == 0){
+            throw new ResourceNotFoundException("Resource not found for the Id: "+id);
+        }
+        departmentStatsUpdater.removed(deletedRow);
+        eventPublisher.publishEvent(EmployeesChangedEvent.deleted(List.of(id)));
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.deleted(List.of(id)));
 
     }
 
+    //Chunked DELETE ... WHERE id IN (...), ids that do not exist are simply not counted
     @Override
-    public Page<EmployeeResponseDto> getAllEmployeesWithPagination(Pageable pageable){
-        Page<Employee> employeeList = employeeRepository.findAll(pageable);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public BulkDeleteResponseDto deleteEmployees(List<Long> ids){
+        if(ids == null || ids.isEmpty()){
+            throw new BadRequestException("No Employee ids given to delete");
+        }
 
-        //map to ResponseDTO
-        return employeeList.map(emp-> mapEmployeeEntityToEmployeeResponseDto(emp)); // emp->mapEmployeeEntityToEmployeeResponseDto(emp) can be this::mapEmployeeEntityToEmployeeResponseDto
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Set<String> departments = new HashSet<>();
+        int deletedCount = 0;
+        for(int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE){
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            departments.addAll(employeeRepository.findDepartmentsByIdIn(chunk));
+            deletedCount += employeeRepository.deleteByIdIn(chunk);
+        }
+        departmentStatsUpdater.recompute(departments);
+
+        logger.info("deleteEmployees, {} of {} ids deleted", deletedCount, distinctIds.size());
+        eventPublisher.publishEvent(EmployeesChangedEvent.deleted(distinctIds));
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.deleted(distinctIds));
+        return new BulkDeleteResponseDto(deletedCount);
     }
 
+    //Filter-based delete, same filters as searchEmployees - the matching rows are read first (id, salary, department),
+    //then deleted by id in chunks : their departments are recomputed under the stored spelling, their ids leave
+    //SalarySnapshot and NameIndex
     @Override
-    public Page<EmployeeResponseDto> searchEmployeesWithPagination(String name, String department, Integer minSalary, Pageable pageable){
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public BulkDeleteResponseDto deleteEmployees(String name, String department, Integer minSalary){
+        boolean noFilter = (name == null || name.isBlank()) && (department == null || department.isBlank()) && minSalary == null;
+        if(noFilter){
+            throw new BadRequestException("At least one of name, department or minSalary is required");
+        }
 
-        //Specification.where(null) creates WHERE 1=1 SQL structure and so we can add chain conditions (AND/OR)
-        Specification<Employee> spec = Specification.where(null); //depricated
+        List<SalaryRow> matching = employeeRepository.findSalaryRows(EmployeeSpecifications.matching(name, department, minSalary));
+        List<Long> ids = matching.stream().map(SalaryRow::id).toList();
+        int deletedCount = 0;
+        for(int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE){
+            deletedCount += employeeRepository.deleteByIdIn(ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size())));
+        }
 
-        if(name!=null && !name.isBlank()){
-            spec = spec.and((root, query, cb)->
-                    cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%")
-            );
+        logger.info("deleteEmployees, name is {}, department is {}, minSalary is {}, {} deleted", name, department, minSalary, deletedCount);
+        if(deletedCount > 0){
+            departmentStatsUpdater.recompute(matching.stream().map(SalaryRow::department).toList());
+            eventPublisher.publishEvent(EmployeesChangedEvent.deleted(ids));
+            eventPublisher.publishEvent(EmployeeNamesChangedEvent.deleted(ids));
         }
+        return new BulkDeleteResponseDto(deletedCount);
+    }
 
-        if(department!=null && !department.isBlank()){
-            spec = spec.and((root, query, cb)->
-                    cb.equal(root.get("department"), department)
-            );
+    //Search filters with the name answered by NameIndex first : its candidate ids go into an id IN (...) next to the LIKE,
+    //so only those rows are read. Falls back to the LIKE alone when the index can not answer. null when no name
+    //contains the term - there is nothing to ask the database
+    private Specification<Employee> searchSpec(String name, String department, Integer minSalary){
+        Specification<Employee> spec = EmployeeSpecifications.matching(name, department, minSalary);
+        if(name == null || name.isBlank()){
+            return spec;
+        }
+        List<Long> candidates = nameIndex.candidates(name);
+        if(candidates == null){
+            return spec;
         }
+        return candidates.isEmpty() ? null : spec.and(EmployeeSpecifications.idIn(candidates));
+    }
 
-        if(minSalary != null){
-            spec = spec.and((root, query, cb)->
-                    cb.greaterThanOrEqualTo(root.get("minSalary"), minSalary)
-            );
+    //Departments a filter-based write touches - none to read when there is a department filter, see recomputeDepartments
+    private List<String> departmentsMatching(Specification<Employee> spec, String department){
+        if(department != null && !department.isBlank()){
+            return List.of();
         }
+        return employeeRepository.findDepartments(spec);
+    }
 
-        Page<Employee> employeePage = employeeRepository.findAll(spec, pageable);
+    //The department filter ignores case, so its department is recomputed under every spelling it matched
+    private void recomputeDepartments(List<String> departments, String department){
+        if(department != null && !department.isBlank()){
+            departmentStatsUpdater.recomputeIgnoreCase(department);
+        }else{
+            departmentStatsUpdater.recompute(departments);
+        }
+    }
 
-        //map to EmployeeResponseDto
-        return employeePage.map(this::mapEmployeeEntityToEmployeeResponseDto);
+    //Read from department_stats, one row per department - no employee row is read
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartmentStatsDto> getDepartmentStats(){
+        return departmentStatsRepository.findByHeadcountGreaterThanOrderByDepartment(0).stream()
+                .map(stats -> new DepartmentStatsDto(stats.getDepartment(), stats.getHeadcount(), stats.getTotalSalary(),
+                        stats.getSalaryCount() == 0 ? null : Math.round((double) stats.getTotalSalary() / stats.getSalaryCount() * 100) / 100.0,
+                        stats.getMinSalary(), stats.getMaxSalary()))
+                .toList();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EmployeeResponseDto> getAllEmployeesWithPagination(Pageable pageable){
+        //Projection query, pageable sort is applied on the entity attributes (e.g. sort=salary,desc)
+        return employeeRepository.findAllDtos(pageable);
     }
 
     @Override
-    public Page<EmployeeResponseDto> searchEmployeesWithPagination1(String name, String department, Integer minSalary, Pageable pageable){
+    @Transactional(readOnly = true)
+    public Page<EmployeeResponseDto> searchEmployeesWithPagination(String name, String department, Integer minSalary, Pageable pageable){
 
-        List<Specification<Employee>> specs = new ArrayList<>();
+        //Specification.allOf() of the optional filters creates WHERE 1=1 SQL structure with AND conditions
+        Specification<Employee> spec = searchSpec(name, department, minSalary);
+        if(spec == null){
+            return Page.empty(pageable);
+        }
+
+        return employeeRepository.findDtoPage(spec, pageable);
+
+    }
 
-        if(name!=null && !name.isBlank()){
-            specs.add((root, query, cb)->
-                    cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%")
-            );
+    @Override
+    @Transactional(readOnly = true)
+    public Page<EmployeeResponseDto> searchEmployeesWithPagination1(String name, String department, Integer minSalary, Pageable pageable){
+
+        //Same filters as searchEmployeesWithPagination (searchSpec), so the two endpoints can not diverge
+        Specification<Employee> spec = searchSpec(name, department, minSalary);
+        if(spec == null){
+            return Page.empty(pageable);
         }
 
-        if(department!=null && !department.isBlank()){
-            specs.add((root, query, cb)->
-                    cb.equal(root.get("department"), department)
-            );
+        return employeeRepository.findDtoPage(spec, pageable);
+
+    }
+
+    //Keyset (seek) pagination - WHERE (sortKey, id) > (last sortKey, last id) ORDER BY sortKey, id LIMIT size+1
+    //No OFFSET and no count(*) query, so any page costs the same as the first one
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<EmployeeResponseDto> searchEmployeesWithCursor(String name, String department, Integer minSalary,
+                                                                        String sortBy, boolean descending, String after, int size){
+        String attribute = switch (sortBy) {
+            case "id" -> "id";
+            case "salary" -> "salary";
+            case "name" -> "nameLower";
+            default -> throw new BadRequestException("Unsupported sort key: " + sortBy + ", use id, salary or name");
+        };
+
+        if(size < 1 || size > 1000){
+            throw new BadRequestException("size must be between 1 and 1000");
         }
 
-        if(minSalary != null){
-            specs.add((root, query, cb)->
-                    cb.greaterThanOrEqualTo(root.get("minSalary"), minSalary)
-            );
+        Specification<Employee> spec = searchSpec(name, department, minSalary);
+        if(spec == null){
+            return new CursorPageDto<>(List.of(), 0, null);
+        }
+        if(!"id".equals(attribute)){
+            spec = spec.and(EmployeeSpecifications.isNotNull(attribute));
+        }
+        if(after != null && !after.isBlank()){
+            spec = spec.and(decodeCursor(after, sortBy, attribute, descending));
         }
 
-        Specification<Employee> spec = Specification.allOf(specs); //allOf for combine as AND conditions, anyOf for combine as OR conditions
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, attribute).and(Sort.by(direction, "id"));
 
-        Page<Employee> employeePage = employeeRepository.findAll(spec, pageable);
+        //one extra row tells whether there is a next page
+        List<EmployeeResponseDto> employeeList = employeeRepository.findDtos(spec, sort, size + 1);
 
-        return employeePage.map(this::mapEmployeeEntityToEmployeeResponseDto);
+        boolean hasNext = employeeList.size() > size;
+        List<EmployeeResponseDto> pageContent = hasNext ? employeeList.subList(0, size) : employeeList;
+        String nextCursor = hasNext ? encodeCursor(sortBy, pageContent.get(size - 1)) : null;
+
+        return new CursorPageDto<>(pageContent, pageContent.size(), nextCursor);
+    }
 
+    //Opaque cursor - base64url of "sortBy:id:value" for the last row of the page
+    private String encodeCursor(String sortBy, EmployeeResponseDto last){
+        Object value = switch (sortBy) {
+            case "salary" -> last.getSalary();
+            case "name" -> last.getName().toLowerCase(Locale.ROOT); //same value as the name_lower column
+            default -> last.getId();
+        };
+        String raw = sortBy + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
+    private Specification<Employee> decodeCursor(String cursor, String sortBy, String attribute, boolean descending){
+        try{
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if(parts.length != 3 || !parts[0].equals(sortBy)){
+                throw new BadRequestException("Cursor does not match sort key " + sortBy);
+            }
+            Long lastId = Long.valueOf(parts[1]);
+            return switch (sortBy) {
+                case "salary" -> EmployeeSpecifications.after(attribute, Integer.valueOf(parts[2]), lastId, descending);
+                case "name" -> EmployeeSpecifications.after(attribute, parts[2], lastId, descending);
+                default -> EmployeeSpecifications.after(attribute, lastId, lastId, descending);
+            };
+        }catch (IllegalArgumentException e){ //bad base64 or number
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
 
 }
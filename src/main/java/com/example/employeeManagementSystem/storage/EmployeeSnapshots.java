@@ -0,0 +1,360 @@
+package com.example.employeeManagementSystem.storage;
+
+import com.example.employeeManagementSystem.analytics.EmployeesChangedEvent;
+import com.example.employeeManagementSystem.analytics.SalaryRow;
+import com.example.employeeManagementSystem.config.CacheConfig;
+import com.example.employeeManagementSystem.search.EmployeeNamesChangedEvent;
+import com.example.employeeManagementSystem.service.impl.DepartmentStatsUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+//Binary dump and reload of the employees table - the fast way to move or re-seed a database (durable profile),
+//instead of replaying the rows through addEmployees/importEmployees (JPA, validation, per-row events).
+//
+//Format, all integers as unsigned LEB128 varints ("+1" fields use 0 for null) :
+//  "EMS" + format version byte
+//  blocks of : row count (0 ends the snapshot), then per row
+//    null flags (name 1, salary 2, email 4, department 8, version 16)
+//    id - previous id (rows are in id order), version+1, salary zigzag, name and email as length + UTF-8,
+//    department as index into the departments seen so far, a new one is index = count followed by its name
+//name_lower/department_lower are not stored, restore derives them like Employee.normalize()
+//
+//Rows are read and written with plain JDBC (JdbcTemplate), no entity is created. A restore adds every chunk to
+//department_stats in the chunk's transaction, clears the employees cache and has NameIndex/SalarySnapshot reload.
+@Component
+public class EmployeeSnapshots {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSnapshots.class);
+
+    static final byte[] MAGIC = {'E', 'M', 'S'};
+    static final int FORMAT_VERSION = 1;
+
+    private static final int BLOCK_ROWS = 4096;
+    private static final int NAME = 1, SALARY = 2, EMAIL = 4, DEPARTMENT = 8, VERSION = 16;
+
+    private static final String SELECT_ALL = "select id, name, salary, email, department, version from employees order by id";
+    private static final String SECONDARY_INDEXES = "select i.index_name, c.column_name from information_schema.indexes i"
+            + " join information_schema.index_columns c on c.index_schema = i.index_schema and c.index_name = i.index_name"
+            + " where i.table_schema = current_schema and i.table_name = 'EMPLOYEES' and i.index_type_name = 'INDEX'"
+            + " order by i.index_name, c.ordinal_position";
+    private static final String INSERT = "insert into employees (id, name, name_lower, salary, email, department, department_lower, version) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DepartmentStatsUpdater departmentStatsUpdater;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    //Constructor Injection
+    public EmployeeSnapshots(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             DepartmentStatsUpdater departmentStatsUpdater, CacheManager cacheManager,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${employee.storage.restore-chunk-size:20000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.departmentStatsUpdater = departmentStatsUpdater;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    //Writes every employee, returns the row count. One read-only transaction, so the snapshot is consistent
+    public long write(OutputStream outputStream) throws IOException {
+        long start = System.nanoTime();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        long rows;
+        try{
+            rows = readOnly.execute(status -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                //H2 buffers large results to disk unless they are read lazily
+                try(Statement statement = connection.createStatement()){
+                    statement.execute("set lazy_query_execution true");
+                }
+                try(Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(SELECT_ALL)){
+                    return writeRows(resultSet, out);
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }finally {
+                    try(Statement statement = connection.createStatement()){
+                        statement.execute("set lazy_query_execution false");
+                    }
+                }
+            }));
+        }catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+        out.flush();
+        logger.info("write, {} employees in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    //Replaces all employees with the snapshot, returns the row count. The table is truncated and the rows are committed
+    //every restore-chunk-size rows - a failed restore leaves a partial table, run it again.
+    //The secondary indexes are dropped for the load and created again afterwards : H2 builds an index over existing rows
+    //by sorting them, inserting into four B-trees row by row made the restore several times slower
+    public long restore(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, 1 << 16));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        int formatVersion = in.readUnsignedByte();
+        if(!Arrays.equals(magic, MAGIC) || formatVersion != FORMAT_VERSION){
+            throw new IOException("Not an employee snapshot (format " + FORMAT_VERSION + ")");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("truncate table employees");
+            departmentStatsUpdater.removedAll();
+        });
+        Map<String, String> indexes = secondaryIndexes();
+        indexes.keySet().forEach(index -> jdbcTemplate.execute("drop index " + index));
+        long rows = 0;
+        long maxId = 0;
+        try{
+            RowReader reader = new RowReader(in);
+            List<Object[]> chunk = new ArrayList<>(chunkSize);
+            for(Object[] row = reader.next(); row != null; row = reader.next()){
+                chunk.add(row);
+                maxId = Math.max(maxId, (Long) row[0]);
+                if(chunk.size() == chunkSize){
+                    rows += insert(chunk);
+                }
+            }
+            rows += insert(chunk);
+        }finally {
+            long indexStart = System.nanoTime();
+            indexes.forEach((index, columns) -> jdbcTemplate.execute("create index " + index + " on employees (" + columns + ")"));
+            logger.info("restore, {} indexes created in {} ms", indexes.size(), (System.nanoTime() - indexStart) / 1_000_000);
+        }
+
+        //Hibernate's pooled optimizer takes the sequence value as the upper end of its next block of ids
+        long nextValue = maxId + 1 + 50;
+        jdbcTemplate.execute("alter sequence employees_seq restart with " + nextValue);
+
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE);
+        if(cache != null){
+            cache.clear();
+        }
+        eventPublisher.publishEvent(EmployeesChangedEvent.reloadAll());
+        eventPublisher.publishEvent(EmployeeNamesChangedEvent.reloadAll());
+        logger.info("restore, {} employees in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    //Non-unique indexes of the employees table (name -> column list), the primary key stays
+    private Map<String, String> secondaryIndexes(){
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query(SECONDARY_INDEXES, (ResultSet resultSet) -> {
+            indexes.merge(resultSet.getString(1), resultSet.getString(2), (columns, column) -> columns + ", " + column);
+        });
+        return indexes;
+    }
+
+    private int insert(List<Object[]> chunk){
+        if(chunk.isEmpty()){
+            return 0;
+        }
+        int[] argTypes = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BIGINT};
+        List<SalaryRow> salaryRows = new ArrayList<>(chunk.size());
+        for(Object[] row : chunk){
+            salaryRows.add(new SalaryRow((Long) row[0], (Integer) row[3], (String) row[5]));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, chunk, argTypes);
+            departmentStatsUpdater.added(salaryRows);
+        });
+        int inserted = chunk.size();
+        chunk.clear();
+        return inserted;
+    }
+
+    private static long writeRows(ResultSet resultSet, DataOutputStream out) throws SQLException, IOException {
+        Map<String, Integer> departments = new HashMap<>();
+        ByteArrayBlock block = new ByteArrayBlock();
+        long rows = 0;
+        long previousId = 0;
+        while(resultSet.next()){
+            long id = resultSet.getLong(1);
+            String name = resultSet.getString(2);
+            int salary = resultSet.getInt(3);
+            boolean salaryNull = resultSet.wasNull();
+            String email = resultSet.getString(4);
+            String department = resultSet.getString(5);
+            long version = resultSet.getLong(6);
+            boolean versionNull = resultSet.wasNull();
+
+            block.data.writeByte((name == null ? NAME : 0) | (salaryNull ? SALARY : 0) | (email == null ? EMAIL : 0)
+                    | (department == null ? DEPARTMENT : 0) | (versionNull ? VERSION : 0));
+            writeVarLong(block.data, id - previousId);
+            previousId = id;
+            if(!versionNull){
+                writeVarLong(block.data, version + 1);
+            }
+            if(!salaryNull){
+                writeVarLong(block.data, ((salary << 1) ^ (salary >> 31)) & 0xFFFFFFFFL);
+            }
+            if(name != null){
+                writeString(block.data, name);
+            }
+            if(email != null){
+                writeString(block.data, email);
+            }
+            if(department != null){
+                Integer index = departments.get(department);
+                if(index == null){
+                    writeVarLong(block.data, departments.size());
+                    writeString(block.data, department);
+                    departments.put(department, departments.size());
+                }else{
+                    writeVarLong(block.data, index);
+                }
+            }
+
+            rows++;
+            if(++block.rows == BLOCK_ROWS){
+                block.flushTo(out);
+            }
+        }
+        block.flushTo(out);
+        writeVarLong(out, 0);
+        return rows;
+    }
+
+    //Rows as insert arguments (id, name, name_lower, salary, email, department, department_lower, version), null at the end
+    private static final class RowReader {
+        private final DataInputStream in;
+        private final List<String> departments = new ArrayList<>();
+        private long remaining;
+        private long previousId;
+        private boolean finished;
+
+        RowReader(DataInputStream in){
+            this.in = in;
+        }
+
+        Object[] next() throws IOException {
+            if(remaining == 0){
+                if(finished){
+                    return null;
+                }
+                remaining = readVarLong(in);
+                if(remaining == 0){
+                    finished = true;
+                    return null;
+                }
+            }
+            remaining--;
+
+            int nulls = in.readUnsignedByte();
+            long id = previousId + readVarLong(in);
+            previousId = id;
+            Long version = (nulls & VERSION) != 0 ? null : readVarLong(in) - 1;
+            Integer salary = null;
+            if((nulls & SALARY) == 0){
+                int zigzag = (int) readVarLong(in);
+                salary = (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            String name = (nulls & NAME) != 0 ? null : readString(in);
+            String email = (nulls & EMAIL) != 0 ? null : readString(in);
+            String department = null;
+            if((nulls & DEPARTMENT) == 0){
+                int index = (int) readVarLong(in);
+                if(index == departments.size()){
+                    departments.add(readString(in));
+                }
+                department = departments.get(index);
+            }
+            return new Object[]{id, name, name == null ? null : name.toLowerCase(Locale.ROOT), salary, email, department,
+                    department == null ? null : department.toLowerCase(Locale.ROOT), version};
+        }
+    }
+
+    //Rows of one block are buffered, the block is written with its row count in front
+    private static final class ByteArrayBlock {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        final DataOutputStream data = new DataOutputStream(bytes);
+        int rows;
+
+        void flushTo(DataOutputStream out) throws IOException {
+            if(rows == 0){
+                return;
+            }
+            writeVarLong(out, rows);
+            bytes.writeTo(out);
+            bytes.reset();
+            rows = 0;
+        }
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while((value & ~0x7FL) != 0){
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int b = in.read();
+            if(b < 0){
+                throw new EOFException("Snapshot ends inside a value");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0){
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.employeeManagementSystem.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//Command line snapshot/restore of the employees table (EmployeeSnapshots) - the application runs the command and exits.
+//Run it while the server is stopped, the file database is locked by the running instance :
+//  java -jar employeeManagementSystem-exec.jar --spring.profiles.active=durable --spring.main.web-application-type=none --snapshot=employees.snap
+//  java -jar employeeManagementSystem-exec.jar --spring.profiles.active=durable --spring.main.web-application-type=none --restore=employees.snap
+@Component
+public class SnapshotCommands implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCommands.class);
+
+    private final EmployeeSnapshots employeeSnapshots;
+    private final ConfigurableApplicationContext applicationContext;
+
+    //Constructor Injection
+    public SnapshotCommands(EmployeeSnapshots employeeSnapshots, ConfigurableApplicationContext applicationContext) {
+        this.employeeSnapshots = employeeSnapshots;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if(args.containsOption("snapshot")){
+            Path file = Path.of(args.getOptionValues("snapshot").get(0));
+            try(OutputStream outputStream = Files.newOutputStream(file)){
+                long rows = employeeSnapshots.write(outputStream);
+                logger.info("run, {} employees written to {} ({} bytes)", rows, file, Files.size(file));
+            }
+        }else if(args.containsOption("restore")){
+            Path file = Path.of(args.getOptionValues("restore").get(0));
+            try(InputStream inputStream = Files.newInputStream(file)){
+                long rows = employeeSnapshots.restore(inputStream);
+                logger.info("run, {} employees restored from {}", rows, file);
+            }
+        }else{
+            return;
+        }
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.employeeManagementSystem.analytics;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.SalaryDistributionDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import com.example.employeeManagementSystem.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.employeeManagementSystem.support.SqlStatementsAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Own database - every new context re-creates the shared schema (create-drop), restarting employees_seq under the
+//id blocks cached contexts still hand out; the seeded 5000 rows would run into ids of such a block
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:salarysnapshot")
+@Import(SqlStatementRecorder.class)
+public class SalarySnapshotTest {
+
+    private static final String[] DEPARTMENTS = {"Cricket", "Football", "Hockey", "Tennis"};
+    private static final List<Double> PERCENTILES = List.of(50.0, 90.0, 99.9);
+
+    @Autowired
+    SalarySnapshot salarySnapshot;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    List<EmployeeResponseDto> seeded;
+
+    @BeforeEach
+    void setUp(){
+        employeeRepository.deleteAllInBatch(); //not through the service, so the snapshot is told to reload
+        salarySnapshot.onEmployeesChanged(EmployeesChangedEvent.reloadAll());
+
+        //More than one scan chunk, so the parallel path is taken
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i=0; i<SalarySnapshot.CHUNK_SIZE + 3000; i++){
+            requests.add(new EmployeeRequestDto("Snapshot " + i, 100_000 + (i * 7919) % 900_000, DEPARTMENTS[i % DEPARTMENTS.length], "snapshot" + i + "@example.com"));
+        }
+        seeded = employeeService.addEmployees(requests);
+    }
+
+    @Test //Aggregates match a brute-force computation over the seeded rows
+    void testDistribution_MatchesSeededRows(){
+        assertMatches(null, null, null);
+        assertMatches("Hockey", null, null);
+        assertMatches("hOCKEY", null, null); //department ignores case, like the database filters
+        assertMatches("Football", 250_000, 600_000);
+        assertMatches(null, 950_000, null);
+
+        assertThat(salarySnapshot.distribution("Chess", null, null, PERCENTILES).count()).isZero();
+        assertThat(salarySnapshot.distribution(null, 600_000, 500_000, PERCENTILES).count()).isZero();
+    }
+
+    @Test //Row writes are merged into the snapshot without reading the table again, set-based writes reload it
+    void testDistribution_FollowsWrites() throws Throwable{
+        salarySnapshot.distribution(null, null, null, PERCENTILES); //loaded
+
+        employeeService.addEmployee(new EmployeeRequestDto("Snapshot New", 2_000_000, "Chess", "new@example.com"));
+        EmployeeResponseDto moved = seeded.get(1);
+        employeeService.updateEmployeeById(new EmployeeRequestDto(moved.getName(), 5_000_000, "CHESS", moved.getEmail()), moved.getId());
+        employeeService.deleteEmployeeById(seeded.get(2).getId());
+        employeeService.deleteEmployees(List.of(seeded.get(3).getId(), seeded.get(4).getId()));
+
+        SalaryDistributionDto[] chess = new SalaryDistributionDto[1];
+        assertThatSql(sqlStatementRecorder.record(() -> chess[0] = salarySnapshot.distribution("Chess", null, null, PERCENTILES)))
+                .hasAtMost(0);
+        assertThat(chess[0].count()).isEqualTo(2);
+        assertThat(chess[0].sum()).isEqualTo(7_000_000);
+        assertThat(chess[0].min()).isEqualTo(2_000_000);
+        assertThat(chess[0].max()).isEqualTo(5_000_000);
+        assertThat(chess[0].percentiles()).containsEntry("p50", 2_000_000).containsEntry("p99.9", 5_000_000);
+
+        assertThat(salarySnapshot.distribution(null, null, null, List.of()).count()).isEqualTo(seeded.size() - 3 + 1);
+        assertMatches("Tennis", null, null);
+
+        //raiseSalary is one UPDATE for the whole department - the snapshot reloads on the next query
+        employeeService.raiseSalary(null, "Chess", null, 0, 1000);
+        assertThat(salarySnapshot.distribution("Chess", null, null, List.of()).sum()).isEqualTo(7_002_000);
+    }
+
+    //Expected values computed from the table itself
+    private void assertMatches(String department, Integer minSalary, Integer maxSalary){
+        int[] salaries = employeeRepository.findAll().stream()
+                .filter(e -> e.getSalary() != null)
+                .filter(e -> department == null || department.equalsIgnoreCase(e.getDepartment()))
+                .filter(e -> minSalary == null || e.getSalary() >= minSalary)
+                .filter(e -> maxSalary == null || e.getSalary() <= maxSalary)
+                .mapToInt(e -> e.getSalary())
+                .sorted()
+                .toArray();
+
+        SalaryDistributionDto distribution = salarySnapshot.distribution(department, minSalary, maxSalary, PERCENTILES);
+
+        assertThat(distribution.count()).isEqualTo(salaries.length);
+        assertThat(distribution.sum()).isEqualTo(Arrays.stream(salaries).asLongStream().sum());
+        assertThat(distribution.min()).isEqualTo(salaries[0]);
+        assertThat(distribution.max()).isEqualTo(salaries[salaries.length - 1]);
+        assertThat(distribution.percentiles().get("p50")).isEqualTo(nearestRank(salaries, 50.0));
+        assertThat(distribution.percentiles().get("p90")).isEqualTo(nearestRank(salaries, 90.0));
+        assertThat(distribution.percentiles().get("p99.9")).isEqualTo(nearestRank(salaries, 99.9));
+    }
+
+    private static int nearestRank(int[] sorted, double percentile){
+        return sorted[(int) Math.ceil(percentile / 100.0 * sorted.length) - 1];
+    }
+}
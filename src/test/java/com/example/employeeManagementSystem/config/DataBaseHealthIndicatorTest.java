@@ -0,0 +1,87 @@
+package com.example.employeeManagementSystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Small pool, so the test can hold every connection. Only the first check runs on its own, the rest is check() calls
+@SpringBootTest(properties = {"spring.datasource.hikari.maximum-pool-size=4", "employee.health.db.interval=1h"})
+@AutoConfigureMockMvc
+public class DataBaseHealthIndicatorTest {
+
+    @Autowired
+    DataBaseHealthIndicator dataBaseHealthIndicator;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test //First background check → UP with database and pool details
+    @SuppressWarnings("unchecked")
+    void testHealth_CheckedInBackground() throws InterruptedException{
+
+        Health health = awaitChecked();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("DataBaseName", "H2").containsEntry("connectionCheck", "done");
+        assertThat((Map<String, Object>) health.getDetails().get("acquireMillis")).containsKeys("p50", "p95", "p99", "max");
+        assertThat((Map<String, Object>) health.getDetails().get("pool")).containsEntry("max", 4).containsKeys("active", "idle", "pending");
+    }
+
+    @Test //Every connection in use → DEGRADED (HTTP 200) at once, the check does not wait for a connection
+    void testHealth_DegradedWhilePoolSaturated() throws Exception{
+
+        awaitChecked();
+        List<Connection> held = new ArrayList<>();
+        try{
+            for(int i = 0; i < 4; i++){
+                held.add(dataSource.getConnection());
+            }
+
+            long start = System.nanoTime();
+            dataBaseHealthIndicator.check();
+            //far below the pool's connection-timeout - only the check, the first MockMvc request is slow on its own
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+            mockMvc.perform(get("/actuator/health"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("DEGRADED"))
+                    .andExpect(jsonPath("$.components.dataBase.details.connectionCheck").value("skipped, no idle connection"))
+                    .andExpect(jsonPath("$.components.dataBase.details.pool.active").value(4));
+        }finally {
+            for(Connection connection : held){
+                connection.close();
+            }
+        }
+
+        dataBaseHealthIndicator.check();
+        assertThat(dataBaseHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private Health awaitChecked() throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Health health = dataBaseHealthIndicator.health();
+        while(health.getStatus() == Status.UNKNOWN){
+            assertThat(System.nanoTime()).as("no database check finished").isLessThan(deadline);
+            Thread.sleep(20);
+            health = dataBaseHealthIndicator.health();
+        }
+        return health;
+    }
+}
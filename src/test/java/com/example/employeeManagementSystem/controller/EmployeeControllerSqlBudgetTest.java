@@ -0,0 +1,237 @@
+package com.example.employeeManagementSystem.controller;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import com.example.employeeManagementSystem.support.ExecutedStatement;
+import com.example.employeeManagementSystem.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.QueryType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.employeeManagementSystem.support.SqlStatementsAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+//SQL statement budget per endpoint, full stack (controller → service → H2), statements recorded per MockMvc request
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementRecorder.class)
+public class EmployeeControllerSqlBudgetTest {
+
+    private static final String EMPLOYEES = "employees";
+    private static final String DEPARTMENT_STATS = "department_stats";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    List<EmployeeResponseDto> seeded;
+
+    @BeforeEach
+    void setUp(){
+        employeeRepository.deleteAllInBatch();
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i=0; i<30; i++){
+            requests.add(new EmployeeRequestDto("Budget " + i, 100000 + i * 10000, i % 2 == 0 ? "Cricket" : "Football", "budget" + i + "@example.com"));
+        }
+        seeded = employeeService.addEmployees(requests);
+    }
+
+    @Test //addEmployee → one INSERT (plus at most one pooled sequence call)
+    void testAddEmployee() throws Throwable{
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(post("/api/employees/addEmployee")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new EmployeeRequestDto("Sachin", 900000, "Cricket", "sachin@example.com"))))
+                .andExpect(status().isCreated()));
+
+        assertThatSql(statements).hasExactly(1, QueryType.INSERT).hasAtMost(2);
+    }
+
+    @Test //addEmployees / importEmployees → inserts sent as JDBC batches, nothing read back
+    void testAddEmployees_AndImportEmployees() throws Throwable{
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i=0; i<60; i++){
+            requests.add(new EmployeeRequestDto("Bulk " + i, 500000, "Hockey", "bulk" + i + "@example.com"));
+        }
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(post("/api/employees/addEmployees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(requests)))
+                .andExpect(status().isCreated()));
+
+        //60 rows / batch size 50 → 2 batches, 2 sequence calls. Hockey is a new department : its department_stats row is
+        //created on its own (UPDATE finds nothing, INSERT of the empty row, UPDATE)
+        assertThatSql(statements).on(EMPLOYEES).hasBatchedInserts().hasExactly(2, QueryType.INSERT)
+                .hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(3);
+        assertThatSql(statements).hasAtMost(7);
+
+        statements = sqlStatementRecorder.record(() -> mockMvc.perform(post("/api/employees/importEmployees")
+                        .contentType("application/x-ndjson")
+                        .content("""
+                                {"name": "Dhoni", "salary": 700000, "department": "Cricket", "email": "dhoni@example.com"}
+                                {"name": "Rohit", "salary": 650000, "department": "Cricket", "email": "rohit@example.com"}
+                                """))
+                .andExpect(status().isOk()));
+
+        assertThatSql(statements).hasBatchedInserts().hasExactly(1, QueryType.INSERT).hasAtMost(2);
+    }
+
+    @Test //reads by id → at most one primary key SELECT (none once cached), one IN query for a multi-get
+    void testReadsById() throws Throwable{
+        Long id = seeded.get(0).getId();
+
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/{id}", id)).andExpect(status().isOk())))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployeeById").param("id", id.toString())).andExpect(status().isOk())))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployeeById").param("id", "-1")).andExpect(status().isNotFound())))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+
+        List<Long> ids = List.of(seeded.get(5).getId(), -1L, seeded.get(2).getId(), seeded.get(9).getId());
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(post("/api/employees/getEmployeesByIds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[0].id").value(ids.get(0)))
+                .andExpect(jsonPath("$.employees[2].id").value(ids.get(3)))
+                .andExpect(jsonPath("$.missingIds[0]").value(-1))))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+    }
+
+    @Test //getAllEmployees and exportEmployees read the whole table on purpose, but in one statement
+    void testGetAllEmployees_AndExportEmployees() throws Throwable{
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees")).andExpect(status().isOk()));
+
+        assertThatSql(statements).hasAtMost(1);
+        //...and that is exactly what the full-scan guard catches
+        assertThatThrownBy(() -> assertThatSql(statements).hasNoUnboundedSelectOn(EMPLOYEES)).isInstanceOf(AssertionError.class);
+
+        assertThatSql(sqlStatementRecorder.record(() -> {
+            MvcResult mvcResult = mockMvc.perform(get("/api/employees/exportEmployees").param("format", "csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+        })).hasAtMost(1);
+    }
+
+    @Test //searches and pages → one filtered/limited SELECT, plus count(*) for Page results
+    void testSearchEndpoints() throws Throwable{
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployees")
+                        .param("department", "Cricket").param("minSalary", "200000"))
+                .andExpect(status().isOk())))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/getAllEmployeesWithPagination")
+                        .param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())))
+                .hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployeesWithPagination")
+                        .param("department", "Cricket").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())))
+                .hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployeesWithPagination1")
+                        .param("name", "budget").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())))
+                .hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+
+        assertThatSql(sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/searchEmployeesWithCursor")
+                        .param("department", "Football").param("sort", "salary").param("size", "5"))
+                .andExpect(status().isOk())))
+                .hasAtMost(1).hasNoUnboundedSelectOn(EMPLOYEES);
+    }
+
+    @Test //departmentStats reads the summary table only, one row per department
+    void testDepartmentStats() throws Throwable{
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(get("/api/employees/departmentStats"))
+                .andExpect(status().isOk()));
+
+        assertThatSql(statements).hasAtMost(1);
+        assertThatSql(statements).on(EMPLOYEES).hasAtMost(0);
+    }
+
+    //Writes below also keep department_stats in step, in the same transaction - budgeted separately from employees
+
+    @Test //updates → a single UPDATE, never one per matching row
+    void testUpdateEndpoints() throws Throwable{
+        Long id = seeded.get(0).getId();
+
+        //load + dirty-checked UPDATE, the salary change moves the department's max
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(put("/api/employees/updateEmployeeById/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new EmployeeRequestDto("Budget 0", 990000, "Cricket", "budget0@example.com"))))
+                .andExpect(status().isOk()));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.UPDATE).hasAtMost(2);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(2);
+
+        //departments of the matching rows, one UPDATE, one SELECT for the returned rows
+        statements = sqlStatementRecorder.record(() -> mockMvc.perform(put("/api/employees/updateEmployeeByName/{name}", "Budget 1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new EmployeeRequestDto("Budget One", 990000, "Football", "budget1@example.com"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Updated-Count", "1"))
+                .andExpect(jsonPath("$[0].name").value("Budget One")));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.UPDATE).hasAtMost(3).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(2);
+
+        statements = sqlStatementRecorder.record(() -> mockMvc.perform(put("/api/employees/raiseSalary")
+                        .param("department", "Cricket").param("percent", "10"))
+                .andExpect(status().isOk()));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.UPDATE).hasAtMost(1);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(2);
+    }
+
+    @Test //deletes → a single DELETE, never load-then-remove per row
+    void testDeleteEndpoints() throws Throwable{
+        //department and salary of the row (no entity), then the DELETE
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> mockMvc.perform(delete("/api/employees/deleteEmployeeById/{id}", seeded.get(0).getId()))
+                .andExpect(status().isNoContent()));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.DELETE).hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(1);
+
+        List<Long> ids = List.of(seeded.get(1).getId(), seeded.get(2).getId(), seeded.get(3).getId());
+        statements = sqlStatementRecorder.record(() -> mockMvc.perform(post("/api/employees/deleteEmployees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedCount").value(3)));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.DELETE).hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(2);
+
+        statements = sqlStatementRecorder.record(() -> mockMvc.perform(delete("/api/employees/deleteEmployees")
+                        .param("department", "Football"))
+                .andExpect(status().isOk()));
+        assertThatSql(statements).on(EMPLOYEES).hasExactly(1, QueryType.DELETE).hasAtMost(2).hasNoUnboundedSelectOn(EMPLOYEES);
+        assertThatSql(statements).on(DEPARTMENT_STATS).hasAtMost(2);
+    }
+
+    private String json(Object value) throws Exception{
+        return objectMapper.writeValueAsString(value);
+    }
+}
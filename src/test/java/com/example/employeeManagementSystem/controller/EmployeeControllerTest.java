@@ -1,24 +1,49 @@
 package com.example.employeeManagementSystem.controller;
 
+import com.example.employeeManagementSystem.exception.PreconditionFailedException;
+import com.example.employeeManagementSystem.exception.ServiceBusyException;
+import com.example.employeeManagementSystem.logging.PayloadLogging;
 import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
 import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.ExportFormat;
+import com.example.employeeManagementSystem.model.dto.ImportSummaryDto;
+import com.example.employeeManagementSystem.model.dto.IngestionJobDto;
+import com.example.employeeManagementSystem.model.dto.IngestionStatus;
+import com.example.employeeManagementSystem.service.EmployeeIngestionService;
 import com.example.employeeManagementSystem.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(EmployeeController.class)
+@Import({SimpleMeterRegistry.class, PayloadLogging.class}) //RequestMetricsFilter needs a MeterRegistry, metrics auto-configuration is not part of the slice
 public class EmployeeControllerTest {
 
     @Autowired
@@ -27,6 +52,9 @@ public class EmployeeControllerTest {
     @MockitoBean //@MockBean is also working but deprecated
     EmployeeService employeeService;
 
+    @MockitoBean
+    EmployeeIngestionService employeeIngestionService;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -59,6 +87,126 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).addEmployee(any(EmployeeRequestDto.class));
     }
 
+    @Test //ETag from id and version, a matching If-None-Match → 304 Not Modified without a body
+    void testGetEmployeeById_NotModified() throws Exception{
+
+        //Mock service behavior
+        when(employeeService.getEmployeeById(1L)).thenReturn(new EmployeeResponseDto(1L, "Sachin", 900000, "Cricket", "sachin@gmail.com", 3L));
+
+        mockMvc.perform(get("/api/employees/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.version").doesNotExist()); //in the ETag only
+
+        mockMvc.perform(get("/api/employees/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/employees/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test //If-Match carries the expected version to the service, stale or foreign ETags → 412 Precondition Failed
+    void testUpdateEmployeeById_IfMatch() throws Exception{
+
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Sachin", 950000, "Cricket", "sachin@gmail.com");
 
+        //Mock service behavior
+        when(employeeService.updateEmployeeById(any(EmployeeRequestDto.class), eq(1L), eq(3L)))
+                .thenReturn(new EmployeeResponseDto(1L, "Sachin", 950000, "Cricket", "sachin@gmail.com", 4L));
+        when(employeeService.updateEmployeeById(any(EmployeeRequestDto.class), eq(1L), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Employee 1 was modified, current version is 3"));
+
+        mockMvc.perform(put("/api/employees/updateEmployeeById/1").header("If-Match", "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employeeRequestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+
+        mockMvc.perform(put("/api/employees/updateEmployeeById/1").header("If-Match", "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employeeRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        //ETag of another employee - rejected before the service is called
+        mockMvc.perform(put("/api/employees/updateEmployeeById/1").header("If-Match", "\"7-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employeeRequestDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(employeeService, times(2)).updateEmployeeById(any(EmployeeRequestDto.class), eq(1L), any(Long.class));
+    }
+
+    @Test //NDJSON import → 200 OK with summary body
+    void testImportEmployees_Ndjson() throws Exception{
+
+        //Mock service behavior
+        when(employeeService.importEmployees(any(InputStream.class), eq(true)))
+                .thenReturn(new ImportSummaryDto(3, 2, 1, List.of(2L)));
+
+        //Perform POST request
+        mockMvc.perform(post("/api/employees/importEmployees")
+                .contentType("application/x-ndjson")
+                .content("{\"name\":\"Sachin\"}\n{}\n{\"name\":\"Virat\"}\n")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failedLines[0]").value(2));
+
+        verify(employeeService, times(1)).importEmployees(any(InputStream.class), eq(true));
+    }
+
+    @Test //Ingestion job accepted → 202 with Location of the job, full queue → 503 with Retry-After
+    void testSubmitIngestionJob() throws Exception{
+
+        //Mock service behavior
+        IngestionJobDto queued = new IngestionJobDto("job-1", IngestionStatus.QUEUED, 0, 0, 0, 0,
+                LocalDateTime.now(), null, null, null, List.of());
+        when(employeeIngestionService.submit(any(InputStream.class), eq(true)))
+                .thenReturn(queued)
+                .thenThrow(new ServiceBusyException("Ingestion queue is full, please retry later"));
+
+        String body = "{\"name\": \"Dhoni\", \"salary\": 700000, \"department\": \"Cricket\", \"email\": \"dhoni@example.com\"}\n";
+
+        mockMvc.perform(post("/api/employees/ingestionJobs")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/api/employees/ingestionJobs/job-1")))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        mockMvc.perform(post("/api/employees/ingestionJobs")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test //CSV export with gzip → an application/gzip file employees.csv.gz, no Content-Encoding
+    void testExportEmployees_CsvGzip() throws Exception{
+
+        //Mock service behavior - write one line to whatever stream the controller hands over
+        when(employeeService.exportEmployees(any(OutputStream.class), eq(ExportFormat.CSV))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("id,name,salary,department,email\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        //StreamingResponseBody is written asynchronously, so dispatch the async result
+        MvcResult mvcResult = mockMvc.perform(get("/api/employees/exportEmployees").param("format", "csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"employees.csv.gz\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("id,name,salary,department,email\n", csv);
+    }
 
-}
\ No newline at end of file
+}
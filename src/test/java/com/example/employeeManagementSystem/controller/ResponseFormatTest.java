@@ -0,0 +1,99 @@
+package com.example.employeeManagementSystem.controller;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Real Tomcat - MockMvc neither negotiates Accept-Encoding nor compresses
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResponseFormatTest {
+
+    private static final TypeReference<List<EmployeeResponseDto>> EMPLOYEE_LIST = new TypeReference<>() {};
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test //Same list as JSON (default), CBOR and Smile, each decodes to the same employees
+    void testSearchEmployees_NegotiatesBinaryFormats() throws Exception{
+
+        seed("FormatsBinary", 50);
+        String path = "/api/employees/searchEmployees?department=FormatsBinary";
+
+        HttpResponse<byte[]> json = get(path, null, null);
+        assertThat(json.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/json"));
+        List<EmployeeResponseDto> expected = new ObjectMapper().readValue(json.body(), EMPLOYEE_LIST);
+        assertThat(expected).hasSize(50);
+
+        HttpResponse<byte[]> cbor = get(path, "application/cbor", null);
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+        assertThat(new CBORMapper().readValue(cbor.body(), EMPLOYEE_LIST)).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+        assertThat(cbor.body().length).isLessThan(json.body().length);
+
+        HttpResponse<byte[]> smile = get(path, "application/x-jackson-smile", null);
+        assertThat(smile.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+        assertThat(new SmileMapper().readValue(smile.body(), EMPLOYEE_LIST)).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+        assertThat(smile.body().length).isLessThan(cbor.body().length);
+    }
+
+    @Test //gzip above server.compression.min-response-size only
+    void testCompression_AboveThreshold() throws Exception{
+
+        List<EmployeeResponseDto> added = seed("FormatsGzip", 50);
+
+        HttpResponse<byte[]> large = get("/api/employees/searchEmployees?department=FormatsGzip", null, "gzip");
+        assertThat(large.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(large.body())).readAllBytes();
+        assertThat(new ObjectMapper().readValue(body, EMPLOYEE_LIST)).hasSize(50);
+        assertThat(large.body().length).isLessThan(body.length / 3);
+
+        HttpResponse<byte[]> cbor = get("/api/employees/searchEmployees?department=FormatsGzip", "application/cbor", "gzip");
+        assertThat(cbor.headers().firstValue("Content-Encoding")).hasValue("gzip");
+
+        HttpResponse<byte[]> small = get("/api/employees/" + added.get(0).getId(), null, "gzip");
+        assertThat(small.statusCode()).isEqualTo(200);
+        assertThat(small.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    private List<EmployeeResponseDto> seed(String department, int count){
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            requests.add(new EmployeeRequestDto("Format Player " + i, 100000 + i, department, "format" + department.length() + i + "@example.com"));
+        }
+        return employeeService.addEmployees(requests);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception{
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if(accept != null){
+            request.header("Accept", accept);
+        }
+        if(acceptEncoding != null){
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.employeeManagementSystem.logging;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PayloadLoggingTest {
+
+    @Test //Sampled lists show the first max-items elements and how many were left out
+    void testOf_CollectionIsCapped(){
+        PayloadLogging payloadLogging = new PayloadLogging(2, 512, 1.0, "");
+
+        assertThat(payloadLogging.of("searchEmployees", List.of("a", "b", "c", "d")).toString()).isEqualTo("[a, b, ... (2 more)]");
+        assertThat(payloadLogging.of("searchEmployees", List.of("a")).toString()).isEqualTo("[a]");
+    }
+
+    @Test //Long renderings are cut at max-chars
+    void testOf_TruncatedToMaxChars(){
+        PayloadLogging payloadLogging = new PayloadLogging(3, 20, 1.0, "");
+        EmployeeRequestDto employeeRequestDto = new EmployeeRequestDto("Sachin", 900000, "Cricket", "sachin@example.com");
+
+        String rendered = payloadLogging.of("addEmployee", employeeRequestDto).toString();
+        assertThat(rendered).startsWith(employeeRequestDto.toString().substring(0, 20)).endsWith("chars)");
+    }
+
+    @Test //Endpoints sampled out are summarized, the default rate applies to the others
+    void testOf_EndpointSampleRates(){
+        PayloadLogging payloadLogging = new PayloadLogging(3, 512, 1.0, "searchEmployees:0, addEmployees:1");
+        List<String> employees = List.of("a", "b", "c", "d", "e");
+
+        assertThat(payloadLogging.of("searchEmployees", employees).toString()).isEqualTo("[5 items]");
+        assertThat(payloadLogging.of("searchEmployees", "Sachin").toString()).isEqualTo("<String>");
+        assertThat(payloadLogging.of("addEmployees", employees).toString()).isEqualTo("[a, b, c, ... (2 more)]");
+        assertThat(payloadLogging.of("getAllEmployees", employees).toString()).isEqualTo("[a, b, c, ... (2 more)]");
+    }
+
+    @Test
+    void testInvalidSampleRates(){
+        assertThatThrownBy(() -> new PayloadLogging(3, 512, 1.0, "searchEmployees"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
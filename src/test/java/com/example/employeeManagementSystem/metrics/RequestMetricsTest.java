@@ -0,0 +1,145 @@
+package com.example.employeeManagementSystem.metrics;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability //keeps the Prometheus registry, tests disable metrics export by default
+public class RequestMetricsTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    RequestMetricsFilter requestMetricsFilter;
+
+    @Test //search → one timed service call, its statements and rows counted for the request, all of it scrapeable
+    void testSearchEmployees_RecordsServiceTimerAndSqlCounts() throws Exception{
+
+        List<EmployeeRequestDto> employees = List.of(
+                new EmployeeRequestDto("Metrics One", 910000, "Metrics", "metrics1@example.com"),
+                new EmployeeRequestDto("Metrics Two", 920000, "Metrics", "metrics2@example.com"),
+                new EmployeeRequestDto("Metrics Three", 930000, "Metrics", "metrics3@example.com"));
+        String body = objectMapper.writeValueAsString(employees);
+
+        mockMvc.perform(post("/api/employees/addEmployees").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/employees/searchEmployees").param("department", "Metrics"))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get(ServiceTimingAspect.METRIC_NAME)
+                .tag("method", "searchEmployees").tag("outcome", "SUCCESS").timer();
+        assertThat(timer.count()).isEqualTo(1);
+
+        DistributionSummary statements = summary("employee.request.statements", "/api/employees/searchEmployees");
+        DistributionSummary rows = summary("employee.request.rows", "/api/employees/searchEmployees");
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(1);
+        assertThat(rows.totalAmount()).isEqualTo(3);
+
+        assertThat(summary("employee.request.payload", "/api/employees/addEmployees").totalAmount())
+                .isEqualTo(body.getBytes().length);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("employee_service_seconds_bucket{exception=\"none\",method=\"searchEmployees\",outcome=\"SUCCESS\"")))
+                .andExpect(content().string(containsString("employee_request_statements_sum{method=\"GET\",uri=\"/api/employees/searchEmployees\"} 1.0")));
+    }
+
+    @Test //update by id loads the entity (dirty checking), the projection reads of search load none
+    void testUpdateEmployeeById_CountsEntityLoads() throws Exception{
+
+        String created = mockMvc.perform(post("/api/employees/addEmployee").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmployeeRequestDto("Metrics Load", 910000, "MetricsLoad", "load@example.com"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(put("/api/employees/updateEmployeeById/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmployeeRequestDto("Metrics Load", 920000, "MetricsLoad", "load@example.com"))))
+                .andExpect(status().isOk());
+
+        DistributionSummary entities = meterRegistry.get("employee.request.entities")
+                .tag("uri", "/api/employees/updateEmployeeById/{id}").tag("method", "PUT").summary();
+        assertThat(entities.count()).isEqualTo(1);
+        assertThat(entities.totalAmount()).isEqualTo(1);
+    }
+
+    @Test //chunked upload (no Content-Length) → the payload is the bytes the application read from the stream
+    void testPayload_CountedWithoutContentLength() throws Exception{
+
+        byte[] body = "{\"name\":\"Chunked\"}\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/employees/ingestionJobs"){
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContent(body);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/chunkedUpload");
+
+        requestMetricsFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet(){
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.getInputStream().transferTo(OutputStream.nullOutputStream());
+            }
+        }));
+
+        DistributionSummary payload = meterRegistry.get("employee.request.payload")
+                .tag("uri", "/api/employees/chunkedUpload").tag("method", "POST").summary();
+        assertThat(payload.count()).isEqualTo(1);
+        assertThat(payload.totalAmount()).isEqualTo(body.length);
+    }
+
+    @Test //failing call → timed with outcome ERROR and the exception name
+    void testGetEmployeeById_NotFoundTimedAsError() throws Exception{
+
+        mockMvc.perform(get("/api/employees/searchEmployeeById").param("id", "999999"))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.get(ServiceTimingAspect.METRIC_NAME)
+                .tag("method", "searchEmployeeById").tag("outcome", "ERROR").tag("exception", "ResourceNotFoundException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private DistributionSummary summary(String name, String uri){
+        return meterRegistry.get(name).tag("uri", uri).tag("method", uri.endsWith("searchEmployees") ? "GET" : "POST").summary();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.employeeManagementSystem.search;
+
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import com.example.employeeManagementSystem.support.ExecutedStatement;
+import com.example.employeeManagementSystem.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.employeeManagementSystem.support.SqlStatementsAssert.assertThatSql;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(SqlStatementRecorder.class)
+public class NameIndexTest {
+
+    private static final String[] FIRST_NAMES = {"Sachin", "Rahul", "Anil", "Virat", "Rohit", "Zaheer", "Jasprit", "Ishant"};
+    private static final String[] LAST_NAMES = {"Tendulkar", "Dravid", "Kumble", "Kohli", "Sharma", "Khan", "Bumrah", "Sharma"};
+
+    @Autowired
+    NameIndex nameIndex;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    @BeforeEach
+    void setUp() throws InterruptedException{
+        employeeRepository.deleteAllInBatch(); //not through the service, so the index is told to reload
+        nameIndex.onEmployeeNamesChanged(EmployeeNamesChangedEvent.reloadAll());
+
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i=0; i<400; i++){
+            String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i;
+            requests.add(new EmployeeRequestDto(name, 100000 + i, i % 2 == 0 ? "Cricket" : "Football", "name" + i + "@example.com"));
+        }
+        employeeService.addEmployees(requests);
+        awaitLoaded();
+    }
+
+    @Test //Searches return exactly the names containing the term, ignoring case
+    void testSearch_MatchesSubstringScan(){
+        for(String term : List.of("sharma", "HIT SHA", "ul dr", "n 39", "kohli 1", "nobody")){
+            List<String> expected = employeeRepository.findAll().stream()
+                    .map(e -> e.getName())
+                    .filter(name -> name.toLowerCase(Locale.ROOT).contains(term.toLowerCase(Locale.ROOT)))
+                    .sorted()
+                    .toList();
+
+            assertThat(employeeService.searchEmployees(term, null, null)).extracting(EmployeeResponseDto::getName)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test //Candidate ids reach the database as id IN (...), unknown terms do not reach it at all
+    void testSearch_UsesCandidateIds() throws Throwable{
+        List<ExecutedStatement> statements = sqlStatementRecorder.record(() -> employeeService.searchEmployees("zaheer khan", "Cricket", null));
+        assertThatSql(statements).hasAtMost(1).hasNoUnboundedSelectOn("employees");
+        assertThat(statements.get(0).sql().toLowerCase(Locale.ROOT)).contains(" in (");
+
+        assertThatSql(sqlStatementRecorder.record(() -> employeeService.searchEmployees("no such name", null, null))).hasAtMost(0);
+        assertThat(employeeService.searchEmployeesWithPagination("no such name", null, null, Pageable.ofSize(5))).isEmpty();
+
+        //the index can not answer these, the LIKE does
+        assertThat(nameIndex.candidates("sa")).isNull();
+        assertThat(nameIndex.candidates("sach_n")).isNull();
+        assertThat(nameIndex.candidates("a")).isNull();
+        assertThat(employeeService.searchEmployees("n drav_d 8", null, null)).extracting(EmployeeResponseDto::getName).contains("Sachin Dravid 8");
+    }
+
+    @Test //Index follows add, update by id, update by name and deletes
+    void testIndex_FollowsWrites(){
+        EmployeeResponseDto added = employeeService.addEmployee(new EmployeeRequestDto("Mahendra Dhoni", 700000, "Cricket", "dhoni@example.com"));
+        assertThat(employeeService.searchEmployees("dhoni", null, null)).extracting(EmployeeResponseDto::getId).containsExactly(added.getId());
+
+        employeeService.updateEmployeeById(new EmployeeRequestDto("Yuvraj Singh", 700000, "Cricket", "yuvraj@example.com"), added.getId());
+        assertThat(employeeService.searchEmployees("dhoni", null, null)).isEmpty();
+        assertThat(employeeService.searchEmployees("yuvraj", null, null)).extracting(EmployeeResponseDto::getId).containsExactly(added.getId());
+
+        employeeService.updateEmployeeByName(new EmployeeRequestDto("Gautam Gambhir", 700000, "Cricket", null), "Yuvraj Singh", false);
+        assertThat(employeeService.searchEmployees("yuvraj", null, null)).isEmpty();
+        assertThat(employeeService.searchEmployees("gambhir", null, null)).extracting(EmployeeResponseDto::getId).containsExactly(added.getId());
+
+        employeeService.deleteEmployeeById(added.getId());
+        assertThat(employeeService.searchEmployees("gambhir", null, null)).isEmpty();
+        assertThat(nameIndex.candidates("gambhir")).isEmpty();
+    }
+
+    @Test //A filter-based delete reports the ids it removed, they leave the index
+    void testIndex_FollowsFilterDelete(){
+        assertThat(nameIndex.candidates("kohli")).hasSize(48);
+
+        assertThat(employeeService.deleteEmployees("kohli", "cricket", null).deletedCount()).isEqualTo(24);
+        assertThat(nameIndex.candidates("kohli")).hasSize(24)
+                .allMatch(id -> employeeRepository.findById(id).orElseThrow().getDepartment().equals("Football"));
+
+        employeeService.deleteEmployees(null, null, 100000);
+        assertThat(nameIndex.candidates("kohli")).isEmpty();
+    }
+
+    @Test //While the index is not loaded searches use the LIKE alone, the load runs on its own thread
+    void testSearch_DoesNotWaitForLoad() throws InterruptedException{
+        nameIndex.onEmployeeNamesChanged(EmployeeNamesChangedEvent.reloadAll());
+
+        assertThat(nameIndex.candidates("kohli")).isNull(); //starts the load
+        assertThat(employeeService.searchEmployees("kohli 2", null, null)).extracting(EmployeeResponseDto::getName)
+                .contains("Sachin Kohli 24", "Rahul Kohli 25");
+        //writes commit while the load runs (or after it) - none of them is lost
+        EmployeeResponseDto added = employeeService.addEmployee(new EmployeeRequestDto("Virender Kohli", 500000, "Cricket", "viru@example.com"));
+        employeeService.deleteEmployees("sachin kohli", null, null);
+
+        awaitLoaded();
+        assertThat(nameIndex.candidates("kohli")).hasSize(48 - 6 + 1).contains(added.getId());
+        assertThat(nameIndex.candidates("sachin kohli")).isEmpty();
+    }
+
+    //Asks the index for a seeded name until it answers - the first call starts the load
+    private void awaitLoaded() throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while(nameIndex.candidates("sharma") == null){
+            assertThat(System.nanoTime()).as("name index not loaded in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.employeeManagementSystem.service;
+
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Own database, the department_stats rows of this test are committed
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:departmentstats")
+public class DepartmentStatsConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int DEPARTMENTS = 20;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Test //Concurrent first employees of a new department all commit and are all counted, none fails on the unique key
+    void testAddEmployee_ConcurrentFirstEmployeesOfDepartment() throws Exception{
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try{
+            for(int department = 0; department < DEPARTMENTS; department++){
+                String name = "Concurrent " + department;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> writes = new ArrayList<>();
+                for(int writer = 0; writer < WRITERS; writer++){
+                    String email = "writer" + writer + ".department" + department + "@example.com";
+                    writes.add(executor.submit(() -> {
+                        start.await();
+                        return employeeService.addEmployee(new EmployeeRequestDto("Writer", 100000, name, email));
+                    }));
+                }
+                start.countDown();
+                for(Future<?> write : writes){
+                    write.get(30, TimeUnit.SECONDS); //rethrows a failed write
+                }
+            }
+        }finally{
+            executor.shutdownNow();
+        }
+
+        List<DepartmentStatsDto> departmentStats = employeeService.getDepartmentStats().stream()
+                .filter(stats -> stats.department().startsWith("Concurrent "))
+                .toList();
+        assertThat(departmentStats).hasSize(DEPARTMENTS)
+                .allSatisfy(stats -> {
+                    assertThat(stats.headcount()).isEqualTo(WRITERS);
+                    assertThat(stats.totalSalary()).isEqualTo(WRITERS * 100000L);
+                });
+    }
+}
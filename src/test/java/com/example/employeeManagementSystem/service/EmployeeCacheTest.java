@@ -0,0 +1,44 @@
+package com.example.employeeManagementSystem.service;
+
+import com.example.employeeManagementSystem.config.CacheConfig;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EmployeeCacheTest {
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test //add puts into the cache, reads hit it, update evicts it and the next read loads the new values
+    void testGetEmployeeById_CachedAndInvalidatedOnUpdate(){
+
+        EmployeeResponseDto added = employeeService.addEmployee(new EmployeeRequestDto("Sachin", 900000, "Cricket", "sachin@example.com"));
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        assertThat(employeeService.getEmployeeById(added.getId()).getName()).isEqualTo("Sachin");
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+
+        employeeService.updateEmployeeById(new EmployeeRequestDto("Sachin Tendulkar", 950000, "Cricket", "sachin@example.com"), added.getId());
+
+        assertThat(employeeService.getEmployeeById(added.getId()).getName()).isEqualTo("Sachin Tendulkar");
+        assertThat(employeeService.searchEmployeeById(added.getId()).getSalary()).isEqualTo(950000);
+        assertThat(gets("miss")).isEqualTo(misses + 1);
+        assertThat(gets("hit")).isEqualTo(hits + 2);
+    }
+
+    private double gets(String result){
+        return meterRegistry.get("cache.gets").tag("cache", CacheConfig.EMPLOYEES_CACHE).tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.employeeManagementSystem.service;
+
+import com.example.employeeManagementSystem.exception.PayloadTooLargeException;
+import com.example.employeeManagementSystem.exception.ResourceNotFoundException;
+import com.example.employeeManagementSystem.exception.ServiceBusyException;
+import com.example.employeeManagementSystem.model.dto.IngestionJobDto;
+import com.example.employeeManagementSystem.model.dto.IngestionStatus;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.service.impl.EmployeeBatchWriter;
+import com.example.employeeManagementSystem.service.impl.EmployeeIngestionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+//One worker and one queue slot, so the third concurrent job is rejected
+@SpringBootTest(properties = {
+        "employee.ingestion.workers=1",
+        "employee.ingestion.queue-capacity=1",
+        "employee.ingestion.chunk-size=100",
+        "employee.ingestion.max-failures-reported=2",
+        "employee.ingestion.max-payload-size=256KB"
+})
+public class EmployeeIngestionServiceTest {
+
+    @Autowired
+    EmployeeIngestionServiceImpl employeeIngestionService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @MockitoSpyBean
+    EmployeeBatchWriter employeeBatchWriter;
+
+    @BeforeEach
+    void setUp(){
+        reset(employeeBatchWriter);
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test //Valid records committed in chunks, invalid and malformed lines reported with line number and reason
+    void testSubmit_CompletesWithFailures() throws Exception{
+        StringBuilder ndjson = new StringBuilder();
+        for(int i=1; i<=1200; i++){
+            if(i == 7){
+                ndjson.append("{\"name\": \"\", \"salary\": 100, \"department\": \"Cricket\", \"email\": \"not-an-email\"}\n");
+            }else if(i == 500){
+                ndjson.append("{\"name\": broken\n");
+            }else{
+                ndjson.append(record(i));
+            }
+        }
+        ndjson.append("{\"name\": \"Late\", \"salary\": -1, \"department\": \"Cricket\", \"email\": \"late@example.com\"}\n");
+
+        IngestionJobDto submitted = employeeIngestionService.submit(body(ndjson.toString()), true);
+        assertThat(submitted.jobId()).isNotBlank();
+
+        IngestionJobDto job = awaitFinished(submitted.jobId());
+
+        assertThat(job.status()).isEqualTo(IngestionStatus.COMPLETED);
+        assertThat(job.received()).isEqualTo(1201);
+        assertThat(job.imported()).isEqualTo(1198);
+        assertThat(job.failed()).isEqualTo(3);
+        assertThat(job.failures()).hasSize(2); //capped by max-failures-reported
+        assertThat(job.failures().get(0).line()).isEqualTo(7);
+        assertThat(job.failures().get(0).reason()).contains("email: ").contains("name: ");
+        assertThat(job.failures().get(1).line()).isEqualTo(500);
+        assertThat(job.recordsPerSecond()).isPositive();
+        assertThat(employeeRepository.count()).isEqualTo(1198);
+    }
+
+    @Test //Full queue → ServiceBusyException, queued jobs still complete once the worker is free again
+    void testSubmit_RejectedWhenQueueIsFull() throws Exception{
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS); //a slow database
+            return invocation.callRealMethod();
+        }).when(employeeBatchWriter).persistAll(any(), any());
+
+        IngestionJobDto running = employeeIngestionService.submit(body(record(1)), true);
+        IngestionJobDto queued = employeeIngestionService.submit(body(record(2)), true);
+
+        assertThatThrownBy(() -> employeeIngestionService.submit(body(record(3)), true))
+                .isInstanceOf(ServiceBusyException.class);
+
+        release.countDown();
+        assertThat(awaitFinished(running.jobId()).imported()).isEqualTo(1);
+        assertThat(awaitFinished(queued.jobId()).imported()).isEqualTo(1);
+        assertThat(employeeRepository.count()).isEqualTo(2);
+    }
+
+    @Test //Payload above max-payload-size → PayloadTooLargeException (413), nothing is left on disk
+    void testSubmit_RejectedWhenPayloadTooLarge() throws Exception{
+        StringBuilder ndjson = new StringBuilder();
+        for(int i=1; ndjson.length() <= 256 * 1024; i++){
+            ndjson.append(record(i));
+        }
+        long spooled = spoolFiles();
+
+        assertThatThrownBy(() -> employeeIngestionService.submit(body(ndjson.toString()), true))
+                .isInstanceOf(PayloadTooLargeException.class);
+
+        assertThat(spoolFiles()).isEqualTo(spooled);
+        assertThat(employeeRepository.count()).isZero();
+    }
+
+    @Test //Jobs still queued at shutdown are failed and their spool files deleted, the running job is left alone
+    void testDiscardQueuedJobs_DeletesSpoolFiles() throws Exception{
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(employeeBatchWriter).persistAll(any(), any());
+        long spooled = spoolFiles();
+
+        IngestionJobDto running = employeeIngestionService.submit(body(record(1)), true);
+        awaitStatus(running.jobId(), IngestionStatus.RUNNING);
+        IngestionJobDto queued = employeeIngestionService.submit(body(record(2)), true);
+        assertThat(spoolFiles()).isEqualTo(spooled + 2);
+
+        employeeIngestionService.discardQueuedJobs();
+
+        IngestionJobDto discarded = employeeIngestionService.getJob(queued.jobId());
+        assertThat(discarded.status()).isEqualTo(IngestionStatus.FAILED);
+        assertThat(discarded.error()).contains("Shut down");
+        assertThat(spoolFiles()).isEqualTo(spooled + 1);
+
+        release.countDown();
+        assertThat(awaitFinished(running.jobId()).imported()).isEqualTo(1);
+        assertThat(spoolFiles()).isEqualTo(spooled);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetJob_NotFound(){
+        assertThatThrownBy(() -> employeeIngestionService.getJob("no-such-job"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void awaitStatus(String jobId, IngestionStatus status) throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while(employeeIngestionService.getJob(jobId).status() != status){
+            assertThat(System.nanoTime()).as("job %s did not reach %s in time", jobId, status).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    //Spool files of the ingestion jobs in the temp directory
+    private static long spoolFiles() throws IOException{
+        try(Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))){
+            return files.filter(file -> file.getFileName().toString().startsWith("employee-ingestion-")).count();
+        }
+    }
+
+    private IngestionJobDto awaitFinished(String jobId) throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        IngestionJobDto job = employeeIngestionService.getJob(jobId);
+        while(job.status() == IngestionStatus.QUEUED || job.status() == IngestionStatus.RUNNING){
+            assertThat(System.nanoTime()).as("job %s did not finish in time", jobId).isLessThan(deadline);
+            Thread.sleep(20);
+            job = employeeIngestionService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static String record(int i){
+        return "{\"name\": \"Ingest " + i + "\", \"salary\": 500000, \"department\": \"Hockey\", \"email\": \"ingest" + i + "@example.com\"}\n";
+    }
+
+    private static InputStream body(String content){
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,538 @@
+package com.example.employeeManagementSystem.service;
+
+import com.example.employeeManagementSystem.analytics.SalarySnapshot;
+import com.example.employeeManagementSystem.config.SearchConfig;
+import com.example.employeeManagementSystem.exception.BadRequestException;
+import com.example.employeeManagementSystem.exception.PreconditionFailedException;
+import com.example.employeeManagementSystem.exception.ResourceNotFoundException;
+import com.example.employeeManagementSystem.logging.PayloadLogging;
+import com.example.employeeManagementSystem.mapper.EmployeeMapperImpl;
+import com.example.employeeManagementSystem.model.dto.BulkDeleteResponseDto;
+import com.example.employeeManagementSystem.model.dto.BulkUpdateResponseDto;
+import com.example.employeeManagementSystem.model.dto.CursorPageDto;
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.model.dto.ExportFormat;
+import com.example.employeeManagementSystem.model.dto.ImportSummaryDto;
+import com.example.employeeManagementSystem.model.dto.MultiGetResponseDto;
+import com.example.employeeManagementSystem.model.entity.Employee;
+import com.example.employeeManagementSystem.repository.EmployeeRepository;
+import com.example.employeeManagementSystem.search.NameIndex;
+import com.example.employeeManagementSystem.service.impl.DepartmentStatsUpdater;
+import com.example.employeeManagementSystem.service.impl.EmployeeBatchWriter;
+import com.example.employeeManagementSystem.service.impl.EmployeeServiceImpl;
+import com.example.employeeManagementSystem.support.ExecutedStatement;
+import com.example.employeeManagementSystem.support.SqlStatementRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.QueryType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static com.example.employeeManagementSystem.support.SqlStatementsAssert.assertThatSql;
+
+@DataJpaTest
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({EmployeeServiceImpl.class, EmployeeBatchWriter.class, DepartmentStatsUpdater.class, EmployeeMapperImpl.class, PayloadLogging.class, SalarySnapshot.class, NameIndex.class, SearchConfig.class, SqlStatementRecorder.class})
+//Test transactions roll back, so NameIndex would never see the after-commit changes - name filters use LIKE here
+@TestPropertySource(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "employee.search.name-index.enabled=false"})
+public class EmployeeServiceImplTest {
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    EmployeeRepository employeeRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    DepartmentStatsUpdater departmentStatsUpdater;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp(){
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test //searchEmployees loads only the matching rows, however big the table is
+    void testSearchEmployees_CostDoesNotGrowWithTableSize(){
+
+        seed(5, "Cricket", 900000, "Sachin");
+
+        seed(200, "Football", 100000, "Player");
+        long smallTableRows = searchAndCountRowsRead();
+
+        seed(2000, "Football", 100000, "Player");
+        long largeTableRows = searchAndCountRowsRead();
+
+        //Same number of rows read (only the 5 matches), one query each time, no entity hydrated (projection)
+        assertThat(smallTableRows).isEqualTo(5);
+        assertThat(largeTableRows).isEqualTo(smallTableRows);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(1).hasNoUnboundedSelectOn("employees");
+    }
+
+    @Test //multi-get keeps request order, reports unknown ids, one padded IN query per 128 ids
+    void testGetEmployeesByIds_OrderedChunkedAndPadded(){
+
+        seed(150, "Cricket", 900000, "Sachin");
+        List<Long> ids = new ArrayList<>(employeeRepository.findAll().stream().map(Employee::getId).toList());
+        Collections.reverse(ids);
+        ids.add(2, -1L);
+        ids.add(-2L);
+        ids.add(ids.get(0)); //duplicate, returned once
+
+        sqlStatementRecorder.reset();
+        MultiGetResponseDto result = employeeService.getEmployeesByIds(ids);
+
+        assertThat(result.employees()).extracting(EmployeeResponseDto::getId)
+                .containsExactlyElementsOf(ids.stream().filter(id -> id > 0).distinct().toList());
+        assertThat(result.missingIds()).containsExactly(-1L, -2L);
+
+        //152 distinct ids → IN lists of 128 and 24, the second padded to 32 parameters
+        List<ExecutedStatement> statements = sqlStatementRecorder.statements();
+        assertThatSql(statements).hasExactly(2, QueryType.SELECT).hasAtMost(2).hasNoUnboundedSelectOn("employees");
+        assertThat(statements.get(1).sql().chars().filter(c -> c == '?').count()).isEqualTo(32);
+    }
+
+    @Test //minSalary filter works on the salary column (used to point at a non-existent minSalary field)
+    void testSearchEmployeesWithPagination_MinSalary(){
+
+        seed(3, "Cricket", 900000, "Sachin");
+        seed(3, "Cricket", 100000, "Virat");
+
+        sqlStatementRecorder.reset();
+        List<EmployeeResponseDto> result = employeeService
+                .searchEmployeesWithPagination("SACH", "Cricket", 500000, PageRequest.of(0, 10))
+                .getContent();
+        //Page and count(*), the count is skipped when the first page is not full
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(2).hasNoUnboundedSelectOn("employees");
+
+        sqlStatementRecorder.reset();
+        List<EmployeeResponseDto> result1 = employeeService
+                .searchEmployeesWithPagination1(null, null, 500000, PageRequest.of(0, 10))
+                .getContent();
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(2).hasNoUnboundedSelectOn("employees");
+
+        assertThat(result).hasSize(3).allMatch(e -> e.getName().startsWith("Sachin"));
+        assertThat(result1).hasSize(3).allMatch(e -> e.getSalary() >= 500000);
+    }
+
+    @Test //the projection page holds the same rows as entities mapped one by one, without loading an entity
+    void testGetAllEmployeesWithPagination_ProjectionMatchesEntities(){
+
+        seed(250, "Football", 100000, "Player");
+        PageRequest pageable = PageRequest.of(1, 100, Sort.by("id"));
+        List<EmployeeResponseDto> fromEntities = employeeRepository.findAll(pageable).map(employee -> new EmployeeResponseDto(
+                employee.getId(), employee.getName(), employee.getSalary(), employee.getDepartment(), employee.getEmail(), employee.getVersion()))
+                .getContent();
+        testEntityManager.clear();
+
+        statistics.clear();
+        List<EmployeeResponseDto> projected = employeeService.getAllEmployeesWithPagination(pageable).getContent();
+
+        assertThat(projected).hasSize(100).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(fromEntities);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test //department filter ignores case (as before the database search), on the indexed department_lower column
+    void testSearchEmployees_DepartmentIgnoresCase(){
+
+        seed(3, "Cricket", 900000, "Sachin");
+        seed(2, "Football", 100000, "Player");
+        departmentStatsUpdater.recomputeAll(); //seed() writes around the service
+
+        assertThat(employeeService.searchEmployees(null, "cricket", null)).hasSize(3).allMatch(e -> e.getDepartment().equals("Cricket"));
+        assertThat(employeeService.searchEmployees(null, "CRICKET", 500000)).hasSize(3);
+        assertThat(employeeService.searchEmployeesWithPagination(null, "fOoTbAlL", null, PageRequest.of(0, 10)).getContent()).hasSize(2);
+        assertThat(employeeService.searchEmployeesWithCursor(null, "football", null, "id", false, null, 10).content()).hasSize(2);
+
+        //filter-based writes match the same rows, department_stats is recomputed for the stored spelling
+        assertThat(employeeService.raiseSalary(null, "cricket", null, 0, 1000).updatedCount()).isEqualTo(3);
+        assertThat(employeeService.deleteEmployees(null, "FOOTBALL", null).deletedCount()).isEqualTo(2);
+        assertDepartmentStatsMatchEmployees();
+    }
+
+    @Test //addEmployees sends JDBC batches instead of one INSERT per row
+    void testAddEmployees_BatchedInserts(){
+
+        List<EmployeeRequestDto> requestDtoList = new ArrayList<>();
+        for(int i=0; i<500; i++){
+            requestDtoList.add(new EmployeeRequestDto("Player " + i, 100000 + i, "Football", "player" + i + "@example.com"));
+        }
+
+        sqlStatementRecorder.reset();
+        List<EmployeeResponseDto> added = employeeService.addEmployees(requestDtoList);
+
+        //500 rows / batch size 50 = 10 insert batches, plus one sequence call per 50 ids and the department_stats row -
+        //Football is new : UPDATE (no row), INSERT of the empty row in its own transaction, UPDATE again
+        assertThatSql(sqlStatementRecorder.statements()).on("employees")
+                .hasBatchedInserts()
+                .hasExactly(10, QueryType.INSERT)
+                .hasNoUnboundedSelectOn("employees");
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(24);
+        assertThatSql(sqlStatementRecorder.statements()).on("department_stats").hasAtMost(3);
+        assertThat(added).hasSize(500).allMatch(e -> e.getId() != null);
+        assertThat(employeeRepository.count()).isEqualTo(500);
+    }
+
+    @Test //NDJSON import persists valid lines and reports the line numbers of invalid ones
+    void testImportEmployees_Ndjson() throws Exception{
+
+        String ndjson = """
+                {"name": "Sachin", "salary": 900000, "department": "Cricket", "email": "sachin@example.com"}
+                {"name": "", "salary": 750000, "department": "Cricket", "email": "virat@example.com"}
+
+                {"name": "Dhoni", "salary": 700000, "department": "Cricket", "email": "dhoni@example.com"}
+                not json
+                """;
+
+        sqlStatementRecorder.reset();
+        ImportSummaryDto summary = employeeService.importEmployees(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), true);
+
+        //Both valid lines go in one chunk - one insert batch, nothing read back
+        assertThatSql(sqlStatementRecorder.statements()).hasBatchedInserts().hasExactly(1, QueryType.INSERT)
+                .hasNoUnboundedSelectOn("employees");
+        assertThat(summary.received()).isEqualTo(4);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.failedLines()).containsExactly(2L, 5L);
+        assertThat(employeeRepository.count()).isEqualTo(2);
+    }
+
+    @Test //JSON array import streams element by element, a record with a wrong type is reported and skipped
+    void testImportEmployees_JsonArray() throws Exception{
+
+        String json = """
+                [
+                  {"name": "Sachin", "salary": 900000, "department": "Cricket", "email": "sachin@example.com"},
+                  {"name": "Virat", "salary": "lots", "department": "Cricket", "email": "virat@example.com"},
+                  {"name": "Dhoni", "salary": 700000, "department": "Cricket", "email": "not-an-email"},
+                  {"name": "Rohit", "salary": 650000, "department": "Cricket", "email": "rohit@example.com"}
+                ]
+                """;
+
+        sqlStatementRecorder.reset();
+        ImportSummaryDto summary = employeeService.importEmployees(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThatSql(sqlStatementRecorder.statements()).hasBatchedInserts().hasExactly(1, QueryType.INSERT);
+        assertThat(summary.received()).isEqualTo(4);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.failedLines()).containsExactly(2L, 3L); //element numbers, not lines
+    }
+
+    @Test //A single-line array still reports which elements were rejected, failedLines is capped but failed counts all
+    void testImportEmployees_FailedLinesCapped() throws Exception{
+
+        StringBuilder json = new StringBuilder("[");
+        for(int i=1; i<=250; i++){
+            json.append("{\"name\": \"Player ").append(i).append("\", \"salary\": 100000, \"department\": \"Cricket\", \"email\": \"")
+                    .append(i % 2 == 0 ? "player" + i + "@example.com" : "not-an-email").append("\"},");
+        }
+        json.append("{\"name\": \"Last\", \"salary\": 100000, \"department\": \"Cricket\", \"email\": \"not-an-email\"}]");
+
+        ImportSummaryDto summary = employeeService.importEmployees(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), false);
+
+        assertThat(summary.received()).isEqualTo(251);
+        assertThat(summary.imported()).isEqualTo(125);
+        assertThat(summary.failed()).isEqualTo(126);
+        assertThat(summary.failedLines()).hasSize(100).startsWith(1L, 3L, 5L);
+    }
+
+    @Test //CSV export writes a header plus one line per employee, quoting values that contain a comma
+    void testExportEmployees_Csv() throws Exception{
+
+        seed(2, "Cricket", 900000, "Sachin");
+        seed(1, "Football, Indoor", 100000, "Player");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        sqlStatementRecorder.reset();
+        long count = employeeService.exportEmployees(outputStream, ExportFormat.CSV);
+
+        //The whole table on purpose, but as one streamed SELECT
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(1);
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).isEqualTo("id,name,salary,department,email");
+        assertThat(lines.get(3)).endsWith(",Player 0,100000,\"Football, Indoor\",player0@example.com");
+    }
+
+    @Test //NDJSON export writes one JSON object per line
+    void testExportEmployees_Ndjson() throws Exception{
+
+        seed(3, "Cricket", 900000, "Sachin");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        sqlStatementRecorder.reset();
+        employeeService.exportEmployees(outputStream, ExportFormat.NDJSON);
+
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(1);
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3).allMatch(line -> line.startsWith("{\"id\":") && line.contains("\"department\":\"Cricket\""));
+    }
+
+    @Test //cursor pages walk the whole filtered result in (salary, id) order without gaps or duplicates
+    void testSearchEmployeesWithCursor_WalksAllPages(){
+
+        seed(7, "Cricket", 900000, "Sachin");
+        seed(6, "Cricket", 500000, "Virat");
+        seed(5, "Football", 700000, "Player");
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do{
+            CursorPageDto<EmployeeResponseDto> page = employeeService.searchEmployeesWithCursor(null, "Cricket", null, "salary", true, cursor, 5);
+            page.content().forEach(e -> seen.add(e.getId()));
+            cursor = page.nextCursor();
+            pages++;
+        }while(cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(13).doesNotHaveDuplicates();
+
+        //Only one bounded query per page, no count(*)
+        sqlStatementRecorder.reset();
+        employeeService.searchEmployeesWithCursor(null, "Cricket", null, "salary", true, null, 5);
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(1).hasNoUnboundedSelectOn("employees");
+    }
+
+    @Test //updateEmployeeByName is one UPDATE plus one follow-up SELECT, however many rows share the name
+    void testUpdateEmployeeByName_SetBased(){
+
+        seed(1, "Cricket", 900000, "Sachin"); //name "Sachin 0"
+        seed(1, "Cricket", 900000, "Sachin");
+        seed(1, "Cricket", 900000, "Sachin");
+        seed(2, "Cricket", 500000, "Virat");
+
+        sqlStatementRecorder.reset();
+        BulkUpdateResponseDto updated = employeeService.updateEmployeeByName(
+                new EmployeeRequestDto("Sachin Tendulkar", 950000, "Cricket", null), "Sachin 0", true);
+
+        assertThat(updated.updatedCount()).isEqualTo(3);
+        assertThat(updated.employees()).hasSize(3).allMatch(e -> e.getSalary() == 950000 && e.getEmail() == null);
+        //plus the departments of the renamed rows before the UPDATE, recomputed in department_stats after it
+        assertThatSql(sqlStatementRecorder.statements()).on("employees").hasExactly(1, QueryType.UPDATE).hasAtMost(3)
+                .hasNoUnboundedSelectOn("employees");
+        assertThatSql(sqlStatementRecorder.statements()).on("department_stats").hasAtMost(2);
+        assertThat(employeeService.searchEmployees("tendulkar", null, null)).hasSize(3); //name_lower kept in sync
+    }
+
+    @Test //A row that already holds the new values is neither updated nor returned
+    void testUpdateEmployeeByName_ReturnsOnlyUpdatedRows(){
+
+        seed(2, "Cricket", 900000, "Sachin"); //"Sachin 0", "Sachin 1"
+        departmentStatsUpdater.recomputeAll(); //seed() writes around the service
+        Long renamedId = employeeRepository.findByName("Sachin 0").get(0).getId();
+        EmployeeResponseDto unrelated = employeeService.addEmployee(new EmployeeRequestDto("Sachin Tendulkar", 950000, "Cricket", null));
+
+        BulkUpdateResponseDto updated = employeeService.updateEmployeeByName(
+                new EmployeeRequestDto("Sachin Tendulkar", 950000, "Cricket", null), "Sachin 0", true);
+
+        assertThat(updated.updatedCount()).isEqualTo(1);
+        assertThat(updated.employees()).hasSize(1).extracting(EmployeeResponseDto::getId)
+                .containsExactly(renamedId);
+        assertThat(employeeRepository.findById(unrelated.getId()).orElseThrow().getVersion()).isEqualTo(unrelated.getVersion());
+        assertThat(employeeService.searchEmployees("tendulkar", null, null)).hasSize(2);
+        assertDepartmentStatsMatchEmployees();
+    }
+
+    @Test //raiseSalary updates every matching row in one statement
+    void testRaiseSalary_ByDepartment(){
+
+        seed(4, "Cricket", 100000, "Sachin");
+        seed(2, "Football", 100000, "Player");
+
+        sqlStatementRecorder.reset();
+        BulkUpdateResponseDto updated = employeeService.raiseSalary(null, "Cricket", null, 10, 500);
+
+        assertThat(updated.updatedCount()).isEqualTo(4);
+        assertThatSql(sqlStatementRecorder.statements()).on("employees").hasExactly(1, QueryType.UPDATE).hasAtMost(1);
+        assertThatSql(sqlStatementRecorder.statements()).on("department_stats").hasAtMost(2);
+        assertThat(employeeService.searchEmployees(null, "Cricket", null)).allMatch(e -> e.getSalary() == 110500);
+        assertThat(employeeService.searchEmployees(null, "Football", null)).allMatch(e -> e.getSalary() == 100000);
+    }
+
+    @Test //raiseSalary never leaves a salary at 0 or below, a cut of 100% or more is a bad request
+    void testRaiseSalary_NegativeResults(){
+
+        seed(2, "Cricket", 100000, "Sachin");
+        seed(1, "Cricket", 20000, "Virat");
+
+        assertThatThrownBy(() -> employeeService.raiseSalary(null, "Cricket", null, -100, 0)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> employeeService.raiseSalary(null, "Cricket", null, -150, 500)).isInstanceOf(BadRequestException.class);
+
+        //-50% then -40000 : 100000 → 10000, 20000 would end at -30000 and is left out
+        BulkUpdateResponseDto updated = employeeService.raiseSalary(null, "Cricket", null, -50, -40000);
+
+        assertThat(updated.updatedCount()).isEqualTo(2);
+        assertThat(employeeService.searchEmployees("sachin", null, null)).allMatch(e -> e.getSalary() == 10000);
+        assertThat(employeeService.searchEmployees("virat", null, null)).allMatch(e -> e.getSalary() == 20000);
+    }
+
+    @Test //salary * (100 + percent) is computed in BIGINT, results beyond the INTEGER range are left out
+    void testRaiseSalary_NoOverflow(){
+
+        seed(2, "Cricket", 30_000_000, "Sachin"); //30M * 110 overflows INTEGER
+        seed(1, "Cricket", 2_000_000_000, "Virat");
+
+        BulkUpdateResponseDto updated = employeeService.raiseSalary(null, "Cricket", null, 10, 0);
+
+        assertThat(updated.updatedCount()).isEqualTo(2);
+        assertThat(employeeService.searchEmployees("sachin", null, null)).allMatch(e -> e.getSalary() == 33_000_000);
+        assertThat(employeeService.searchEmployees("virat", null, null)).allMatch(e -> e.getSalary() == 2_000_000_000);
+    }
+
+    @Test //bulk delete by ids - one DELETE per chunk, unknown ids are not counted
+    void testDeleteEmployees_ByIds(){
+
+        seed(3, "Cricket", 900000, "Sachin");
+        List<Long> ids = new ArrayList<>(employeeService.searchEmployees("sachin", null, null).stream().map(EmployeeResponseDto::getId).toList());
+        ids.add(-1L);
+
+        sqlStatementRecorder.reset();
+        BulkDeleteResponseDto deleted = employeeService.deleteEmployees(ids);
+
+        assertThat(deleted.deletedCount()).isEqualTo(3);
+        //plus the departments of the chunk, read before its DELETE
+        assertThatSql(sqlStatementRecorder.statements()).on("employees").hasExactly(1, QueryType.DELETE).hasAtMost(2);
+        assertThat(employeeRepository.count()).isZero();
+    }
+
+    @Test //single delete is one statement and still 404s for an unknown id; filter delete removes only matches
+    void testDeleteEmployeeById_AndByFilter(){
+
+        seed(2, "Cricket", 900000, "Sachin");
+        seed(3, "Football", 100000, "Player");
+        Long id = employeeService.searchEmployees("sachin 0", null, null).get(0).getId();
+
+        sqlStatementRecorder.reset();
+        employeeService.deleteEmployeeById(id);
+        //department and salary of the row first, then one department_stats UPDATE
+        assertThatSql(sqlStatementRecorder.statements()).on("employees").hasExactly(1, QueryType.DELETE).hasAtMost(2);
+        assertThatSql(sqlStatementRecorder.statements()).on("department_stats").hasAtMost(1);
+        assertThatThrownBy(() -> employeeService.deleteEmployeeById(id)).isInstanceOf(ResourceNotFoundException.class);
+
+        sqlStatementRecorder.reset();
+        assertThat(employeeService.deleteEmployees(null, "Football", null).deletedCount()).isEqualTo(3);
+        assertThatSql(sqlStatementRecorder.statements()).on("employees").hasExactly(1, QueryType.DELETE).hasAtMost(2);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    @Test //department_stats follows every write path and always equals a GROUP BY over employees
+    void testDepartmentStats_FollowWrites(){
+
+        seed(3, "Cricket", 900000, "Sachin");
+        seed(2, "Football", 100000, "Player");
+        departmentStatsUpdater.recomputeAll(); //seed() writes around the service
+        List<EmployeeResponseDto> cricket = employeeService.searchEmployees(null, "Cricket", null);
+        EmployeeResponseDto added = employeeService.addEmployee(new EmployeeRequestDto("Virat", 500000, "Cricket", "virat@example.com"));
+        employeeService.addEmployee(new EmployeeRequestDto("Unpaid", null, "Hockey", "unpaid@example.com"));
+        assertDepartmentStatsMatchEmployees();
+
+        //the minimum leaves Cricket for Hockey, then a maximum is deleted
+        employeeService.updateEmployeeById(new EmployeeRequestDto("Virat", 700000, "Hockey", "virat@example.com"), added.getId());
+        employeeService.deleteEmployeeById(cricket.get(0).getId());
+        assertDepartmentStatsMatchEmployees();
+
+        employeeService.updateEmployeeByName(new EmployeeRequestDto("Player", 300000, "Tennis", null), "Player 0", false);
+        employeeService.raiseSalary(null, null, 800000, 10, 0);
+        employeeService.deleteEmployees(List.of(cricket.get(1).getId()));
+        employeeService.deleteEmployees(null, "Football", null);
+        assertDepartmentStatsMatchEmployees();
+
+        sqlStatementRecorder.reset();
+        List<DepartmentStatsDto> departmentStats = employeeService.getDepartmentStats();
+        assertThatSql(sqlStatementRecorder.statements()).hasAtMost(1).on("employees").hasAtMost(0);
+        assertThat(departmentStats).extracting(DepartmentStatsDto::department).containsExactly("Cricket", "Hockey", "Tennis");
+        assertThat(departmentStats.get(1)).isEqualTo(new DepartmentStatsDto("Hockey", 2, 700000, 700000.0, 700000, 700000));
+    }
+
+    @Test //Every write path moves the version on, the response of an update already carries the new one
+    void testVersion_FollowsWrites(){
+
+        EmployeeResponseDto added = employeeService.addEmployee(new EmployeeRequestDto("Virat", 500000, "Cricket", "virat@example.com"));
+        assertThat(added.getVersion()).isEqualTo(0L);
+
+        EmployeeResponseDto updated = employeeService.updateEmployeeById(new EmployeeRequestDto("Virat", 600000, "Cricket", "virat@example.com"), added.getId(), 0L);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(employeeService.searchEmployeeById(added.getId()).getVersion()).isEqualTo(1L);
+
+        //If-Match of the first read is stale now
+        assertThatThrownBy(() -> employeeService.updateEmployeeById(new EmployeeRequestDto("Virat", 1, "Cricket", "virat@example.com"), added.getId(), 0L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        employeeService.updateEmployeeByName(new EmployeeRequestDto("Virat Kohli", 600000, "Cricket", "virat@example.com"), "Virat", false);
+        employeeService.raiseSalary(null, "Cricket", null, 10, 0);
+        assertThat(employeeService.searchEmployeeById(added.getId()).getVersion()).isEqualTo(3L);
+    }
+
+    //Every department's summary equals the aggregate computed from the employees table
+    private void assertDepartmentStatsMatchEmployees(){
+        testEntityManager.flush();
+        List<DepartmentStatsDto> expected = testEntityManager.getEntityManager().createQuery(
+                        "select e.department, count(e), coalesce(sum(e.salary), 0), avg(e.salary), min(e.salary), max(e.salary) " +
+                                "from Employee e where e.department is not null group by e.department order by e.department", Object[].class)
+                .getResultList().stream()
+                .map(row -> new DepartmentStatsDto((String) row[0], ((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                        row[3] == null ? null : Math.round(((Number) row[3]).doubleValue() * 100) / 100.0, (Integer) row[4], (Integer) row[5]))
+                .toList();
+        assertThat(employeeService.getDepartmentStats()).isEqualTo(expected);
+    }
+
+    private long searchAndCountRowsRead(){
+        statistics.clear();
+        sqlStatementRecorder.reset();
+        List<EmployeeResponseDto> result = employeeService.searchEmployees("sachin", "Cricket", 500000);
+        assertThat(result).hasSize(5);
+        return Arrays.stream(statistics.getQueries())
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+    }
+
+    private void seed(int count, String department, int salary, String namePrefix){
+        List<Employee> employees = new ArrayList<>();
+        for(int i=0; i<count; i++){
+            Employee employee = new Employee();
+            employee.setName(namePrefix + " " + i);
+            employee.setSalary(salary);
+            employee.setDepartment(department);
+            employee.setEmail(namePrefix.toLowerCase() + i + "@example.com");
+            employees.add(employee);
+        }
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        testEntityManager.clear(); //so the search has to load from the database
+    }
+}
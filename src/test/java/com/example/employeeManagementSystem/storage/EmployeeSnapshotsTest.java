@@ -0,0 +1,78 @@
+package com.example.employeeManagementSystem.storage;
+
+import com.example.employeeManagementSystem.exception.ResourceNotFoundException;
+import com.example.employeeManagementSystem.model.dto.DepartmentStatsDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeRequestDto;
+import com.example.employeeManagementSystem.model.dto.EmployeeResponseDto;
+import com.example.employeeManagementSystem.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//Own database - restore truncates the employees table
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:snapshots")
+public class EmployeeSnapshotsTest {
+
+    private static final String INDEXES = "select index_name, column_name from information_schema.index_columns where table_name = 'EMPLOYEES' order by index_name, ordinal_position";
+    private static final String ALL_COLUMNS = "select id, name, name_lower, salary, email, department, department_lower, version from employees order by id";
+
+    @Autowired
+    EmployeeSnapshots employeeSnapshots;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test //Snapshot → later changes → restore gives back exactly the rows of the snapshot, department_stats, name search and ids follow
+    void testWriteAndRestore_RoundTrip() throws IOException{
+
+        List<EmployeeRequestDto> requests = new ArrayList<>();
+        for(int i = 0; i < 10_000; i++){
+            requests.add(new EmployeeRequestDto("Snapshot Ünal " + i, i % 7 == 0 ? null : 100_000 + i * 3, i % 5 == 0 ? null : "Dept " + (i % 12), "snap" + i + "@example.com"));
+        }
+        List<EmployeeResponseDto> added = employeeService.addEmployees(requests);
+        employeeService.updateEmployeeById(new EmployeeRequestDto("Renamed Once", Integer.MAX_VALUE, "Dept 1", null), added.get(3).getId());
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList(ALL_COLUMNS);
+        List<DepartmentStatsDto> expectedStats = employeeService.getDepartmentStats();
+        List<Map<String, Object>> expectedIndexes = jdbcTemplate.queryForList(INDEXES);
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        assertThat(employeeSnapshots.write(snapshot)).isEqualTo(10_000);
+        assertThat(snapshot.size()).isLessThan(10_000 * 50);
+
+        employeeService.deleteEmployees(null, "Dept 3", null);
+        EmployeeResponseDto notInSnapshot = employeeService.addEmployee(new EmployeeRequestDto("Not In Snapshot", 1, "Other", "other@example.com"));
+        assertThat(employeeService.searchEmployees("in snap", null, null)).hasSize(1); //NameIndex loaded before the restore
+        assertThat(employeeService.getEmployeeById(added.get(3).getId()).getName()).isEqualTo("Renamed Once"); //cached
+
+        assertThat(employeeSnapshots.restore(new ByteArrayInputStream(snapshot.toByteArray()))).isEqualTo(10_000);
+        assertThat(jdbcTemplate.queryForList(ALL_COLUMNS)).isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForList(INDEXES)).isEqualTo(expectedIndexes).hasSizeGreaterThan(5); //dropped for the load
+        assertThat(employeeService.getDepartmentStats()).isEqualTo(expectedStats);
+        assertThat(employeeService.searchEmployees("in snap", null, null)).isEmpty();
+        assertThat(employeeService.searchEmployees("ünal 999", null, null)).extracting(EmployeeResponseDto::getName).contains("Snapshot Ünal 9999");
+        assertThatThrownBy(() -> employeeService.getEmployeeById(notInSnapshot.getId())).isInstanceOf(ResourceNotFoundException.class);
+
+        long maxId = added.stream().mapToLong(EmployeeResponseDto::getId).max().orElseThrow();
+        assertThat(employeeService.addEmployee(new EmployeeRequestDto("After Restore", 1, "Dept 1", "after@example.com")).getId()).isGreaterThan(maxId);
+    }
+
+    @Test
+    void testRestore_RejectsOtherFiles(){
+        assertThatThrownBy(() -> employeeSnapshots.restore(new ByteArrayInputStream("{\"id\": 1}".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.employeeManagementSystem.support;
+
+import net.ttddyy.dsproxy.QueryType;
+
+//One JDBC execution seen by SqlStatementRecorder, a JDBC batch is one execution of batchSize parameter sets
+public record ExecutedStatement(QueryType type, String sql, boolean batch, int batchSize) {
+
+    @Override
+    public String toString(){
+        return batch ? "[batch of " + batchSize + "] " + sql : sql;
+    }
+}
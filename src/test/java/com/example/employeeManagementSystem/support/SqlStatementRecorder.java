@@ -0,0 +1,62 @@
+package com.example.employeeManagementSystem.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+//Test support - wraps the DataSource (datasource-proxy) and records every JDBC statement executed through it.
+//@Import(SqlStatementRecorder.class) into the test, then either reset() before the code under test and check
+//statements() afterwards, or record(...) around a single call / MockMvc request. Assert with SqlStatementsAssert
+@TestComponent
+public class SqlStatementRecorder implements BeanPostProcessor {
+
+    private final List<ExecutedStatement> statements = new ArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof DataSource dataSource){
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .afterQuery(this::executed)
+                    .build();
+        }
+        return bean;
+    }
+
+    private void executed(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList){
+        synchronized (statements){
+            for(QueryInfo queryInfo : queryInfoList){
+                String sql = queryInfo.getQuery();
+                statements.add(new ExecutedStatement(QueryUtils.getQueryType(sql), sql,
+                        executionInfo.isBatch(), executionInfo.isBatch() ? queryInfo.getParametersList().size() : 1));
+            }
+        }
+    }
+
+    public void reset(){
+        synchronized (statements){
+            statements.clear();
+        }
+    }
+
+    //Everything executed since the last reset()
+    public List<ExecutedStatement> statements(){
+        synchronized (statements){
+            return List.copyOf(statements);
+        }
+    }
+
+    //Only what the given code executed, e.g. recorder.record(() -> mockMvc.perform(get(...)))
+    public List<ExecutedStatement> record(ThrowingCallable code) throws Throwable {
+        reset();
+        code.call();
+        return statements();
+    }
+}
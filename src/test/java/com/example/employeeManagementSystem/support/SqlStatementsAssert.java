@@ -0,0 +1,108 @@
+package com.example.employeeManagementSystem.support;
+
+import net.ttddyy.dsproxy.QueryType;
+import org.assertj.core.api.AbstractAssert;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Statement budgets for the recorded SQL, e.g.
+//  assertThatSql(recorder.statements()).hasAtMost(2).hasNoUnboundedSelectOn("employees").hasBatchedInserts();
+//  assertThatSql(recorder.statements()).on("department_stats").hasAtMost(1);
+//Failure messages list every recorded statement
+public class SqlStatementsAssert extends AbstractAssert<SqlStatementsAssert, List<ExecutedStatement>> {
+
+    //Row-limiting clauses Hibernate renders for H2 (setMaxResults / Pageable)
+    private static final Pattern ROW_LIMIT = Pattern.compile("\\b(fetch\\s+(first|next)|limit|offset)\\b");
+    private static final Pattern WHERE = Pattern.compile("\\bwhere\\b");
+    private static final Pattern COUNT_ONLY = Pattern.compile("^select\\s+count\\(");
+    private static final Pattern MAIN_TABLE = Pattern.compile("\\b(from|into|update)\\s+(\\w+)");
+
+    private SqlStatementsAssert(List<ExecutedStatement> statements){
+        super(statements, SqlStatementsAssert.class);
+    }
+
+    public static SqlStatementsAssert assertThatSql(List<ExecutedStatement> statements){
+        return new SqlStatementsAssert(statements);
+    }
+
+    //Only the statements whose main table (first FROM/INTO/UPDATE) is the given one, e.g. the employees budget apart from
+    //the summary table statements - a subquery on the table does not count
+    public SqlStatementsAssert on(String table){
+        isNotNull();
+        return new SqlStatementsAssert(actual.stream()
+                .filter(statement -> {
+                    Matcher matcher = MAIN_TABLE.matcher(statement.sql().toLowerCase(Locale.ROOT));
+                    return matcher.find() && matcher.group(2).equals(table.toLowerCase(Locale.ROOT));
+                })
+                .toList());
+    }
+
+    public SqlStatementsAssert hasAtMost(int maxStatements){
+        isNotNull();
+        if(actual.size() > maxStatements){
+            failWithMessage("Expected at most %d statements but %d were executed:%n%s", maxStatements, actual.size(), listing());
+        }
+        return this;
+    }
+
+    public SqlStatementsAssert hasAtMost(int maxStatements, QueryType type){
+        isNotNull();
+        long count = count(type);
+        if(count > maxStatements){
+            failWithMessage("Expected at most %d %s statements but %d were executed:%n%s", maxStatements, type, count, listing());
+        }
+        return this;
+    }
+
+    public SqlStatementsAssert hasExactly(int statements, QueryType type){
+        isNotNull();
+        long count = count(type);
+        if(count != statements){
+            failWithMessage("Expected exactly %d %s statements but %d were executed:%n%s", statements, type, count, listing());
+        }
+        return this;
+    }
+
+    public SqlStatementsAssert hasNone(QueryType type){
+        return hasExactly(0, type);
+    }
+
+    //No SELECT that reads the table without a WHERE or a row limit - the findAll() + stream filter pattern.
+    //A bare count(*) returns one row and is allowed (page totals)
+    public SqlStatementsAssert hasNoUnboundedSelectOn(String table){
+        isNotNull();
+        Pattern fromTable = Pattern.compile("\\bfrom\\s+" + Pattern.quote(table.toLowerCase(Locale.ROOT)) + "\\b");
+        for(ExecutedStatement statement : actual){
+            String sql = statement.sql().toLowerCase(Locale.ROOT).trim();
+            if(statement.type() == QueryType.SELECT && fromTable.matcher(sql).find()
+                    && !WHERE.matcher(sql).find() && !ROW_LIMIT.matcher(sql).find() && !COUNT_ONLY.matcher(sql).find()){
+                failWithMessage("Expected no unbounded SELECT on %s but found:%n%s%nin:%n%s", table, statement, listing());
+            }
+        }
+        return this;
+    }
+
+    //At least one INSERT, all of them sent as JDBC batches, and fewer executions than rows inserted
+    public SqlStatementsAssert hasBatchedInserts(){
+        isNotNull();
+        List<ExecutedStatement> inserts = actual.stream().filter(statement -> statement.type() == QueryType.INSERT).toList();
+        int rows = inserts.stream().mapToInt(ExecutedStatement::batchSize).sum();
+        if(inserts.isEmpty() || inserts.stream().anyMatch(statement -> !statement.batch()) || (rows > 1 && inserts.size() >= rows)){
+            failWithMessage("Expected batched INSERTs but got:%n%s", listing());
+        }
+        return this;
+    }
+
+    private long count(QueryType type){
+        return actual.stream().filter(statement -> statement.type() == type).count();
+    }
+
+    private String listing(){
+        StringBuilder listing = new StringBuilder();
+        actual.forEach(statement -> listing.append("  ").append(statement).append(System.lineSeparator()));
+        return listing.toString();
+    }
+}